@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -25,12 +27,15 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> findByBooker(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
+    public ResponseEntity<Object> findByBooker(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
@@ -40,6 +45,10 @@ public class BookingClient extends BaseClient {
     }
 
 
+    public ResponseEntity<Object> createBookings(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> findBookingByUserId(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -49,14 +58,39 @@ public class BookingClient extends BaseClient {
         return patch("/" + id + "?approved={approved}", bookerId, parameters, null);
     }
 
-    public ResponseEntity<Object> findByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
+    public ResponseEntity<Object> findByOwner(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("/owner?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> updateBookings(long userId, BookingBulkRequestDto requestDto) {
+        return patch("/owner/bulk", userId, requestDto);
+    }
+
+    public ResponseEntity<Object> findPendingByOwner(long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            return get("/owner/pending?from={from}&size={size}&cursor={cursor}", userId, parameters);
+        }
+        return get("/owner/pending?from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookerSummary(long userId) {
+        return get("/summary", userId);
+    }
 
+    public ResponseEntity<Object> getOwnerSummary(long userId) {
+        return get("/owner/summary", userId);
     }
 
 }
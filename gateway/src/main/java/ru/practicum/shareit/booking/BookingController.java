@@ -8,8 +8,11 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -27,6 +30,14 @@ public class BookingController {
         return bookingClient.createBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                 List<@Valid BookItemRequestDto> requestDtos) {
+        log.info("Batch of " + requestDtos.size() + " bookings created by user with id " + userId + " from local client.");
+        return bookingClient.createBookings(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     ResponseEntity<Object> updateBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId,
                                          @RequestParam Boolean approved) {
@@ -34,6 +45,13 @@ public class BookingController {
         return bookingClient.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/owner/bulk")
+    public ResponseEntity<Object> updateBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @Valid BookingBulkRequestDto requestDto) {
+        log.info("Bulk updated bookings for owner with id " + userId + " from local client.");
+        return bookingClient.updateBookings(userId, requestDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> findBookingByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @PathVariable Long bookingId) {
@@ -45,23 +63,46 @@ public class BookingController {
     public ResponseEntity<Object> findByBooker(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                 @RequestParam(name = "cursor", required = false) String cursor) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a list of bookings for all items with booker id " + userId + " from local client");
-        return bookingClient.findByBooker(userId, state, from, size);
+        return bookingClient.findByBooker(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
     ResponseEntity<Object> findByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                          @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                         @RequestParam(name = "cursor", required = false) String cursor) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a list of bookings for all items with owner id  " + userId + " from local client");
-        return bookingClient.findByOwner(userId, state, from, size);
+        return bookingClient.findByOwner(userId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/pending")
+    public ResponseEntity<Object> findPendingByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Received a queue of pending bookings for owner with id " + userId + " from local client");
+        return bookingClient.findPendingByOwner(userId, from, size, cursor);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Received a booking summary for booker with id " + userId + " from local client");
+        return bookingClient.getBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Received a booking summary for owner with id " + userId + " from local client");
+        return bookingClient.getOwnerSummary(userId);
     }
 }
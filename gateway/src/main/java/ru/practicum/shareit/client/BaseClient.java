@@ -1,19 +1,36 @@
 package ru.practicum.shareit.client;
 
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
 
     protected final RestTemplate rest;
+    private final ClientHttpRequestFactory streams;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, rest.getRequestFactory());
+    }
+
+    /**
+     * Streams are opened through their own request factory, so long-lived streams cannot take the connections
+     * of ordinary calls.
+     */
+    public BaseClient(RestTemplate rest, ClientHttpRequestFactory streams) {
         this.rest = rest;
+        this.streams = streams;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -76,6 +93,36 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId) throws IOException {
+        ClientHttpRequest request = streams.createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        ClientHttpResponse response;
+        try {
+            response = request.execute();
+        } catch (ConnectionPoolTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        StreamingResponseBody body = output -> {
+            try (ClientHttpResponse upstream = response) {
+                InputStream input = upstream.getBody();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                    output.flush();
+                }
+            }
+        };
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode());
+        if (response.getHeaders().getContentType() != null) {
+            responseBuilder.contentType(response.getHeaders().getContentType());
+        }
+        return responseBuilder.body(body);
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
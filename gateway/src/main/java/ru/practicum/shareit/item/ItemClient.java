@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -46,13 +48,44 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size) {
+    public ResponseEntity<Object> search(String text, Integer from, Integer size, Long after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+            return get("/search?text={text}&from={from}&size={size}&after={after}", null, parameters);
+        }
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
+                "prefix", prefix,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                  Boolean includeWaiting) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to,
+                "includeWaiting", includeWaiting
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}&includeWaiting={includeWaiting}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, Long after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+            return get("/" + itemId + "/comments?size={size}&after={after}", null, parameters);
+        }
+        return get("/" + itemId + "/comments?size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> saveComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping("/items")
@@ -50,9 +52,34 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestParam String text,
                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                @Positive @RequestParam(name = "after", required = false) Long after) {
         log.info("Found item by given keyword: " + text + " from local client");
-        return itemClient.search(text, from, size);
+        return itemClient.search(text, from, size, after);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Suggested item names for prefix: " + prefix + " from local client");
+        return itemClient.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                  @RequestParam(name = "includeWaiting", defaultValue = "false") Boolean includeWaiting) {
+        log.info("Received availability of item with id: " + itemId + " from local client");
+        return itemClient.getAvailability(itemId, from, to, includeWaiting);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @Positive @RequestParam(name = "after", required = false) Long after,
+                                              @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Received comments of item with id: " + itemId + " from local client");
+        return itemClient.getComments(itemId, after, size);
     }
 
     @PostMapping("/{itemId}/comment")
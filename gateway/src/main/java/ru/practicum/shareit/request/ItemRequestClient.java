@@ -2,12 +2,17 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.apache.http.impl.client.HttpClients;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -15,11 +20,16 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             @Value("${shareit-server.stream.max-connections:100}") int maxStreams,
+                             @Value("${shareit-server.connection-request-timeout:5s}")
+                             Duration connectionRequestTimeout,
+                             RestTemplateBuilder builder) {
         super(
                 builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory(connectionRequestTimeout))
+                        .build(),
+                streamRequestFactory(maxStreams, connectionRequestTimeout)
         );
     }
 
@@ -31,14 +41,38 @@ public class ItemRequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(Long userId, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size);
+    public ResponseEntity<Object> getAllItemRequests(Long userId, int from, int size, Long after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+            return get("/all?from={from}&size={size}&after={after}", userId, parameters);
+        }
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<StreamingResponseBody> subscribe(Long userId) throws IOException {
+        return stream("/stream", userId);
+    }
+
     public ResponseEntity<Object> getItemRequestById(Long requestId, Long userId) {
         return get("/" + requestId, userId);
     }
+
+    private static HttpComponentsClientHttpRequestFactory requestFactory(Duration connectionRequestTimeout) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
+        factory.setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis());
+        return factory;
+    }
+
+    private static HttpComponentsClientHttpRequestFactory streamRequestFactory(int maxStreams,
+                                                                               Duration connectionRequestTimeout) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setMaxConnTotal(maxStreams)
+                .setMaxConnPerRoute(maxStreams)
+                .build());
+        factory.setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis());
+        return factory;
+    }
 }
@@ -6,10 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Controller
 @RequiredArgsConstructor
@@ -36,9 +38,16 @@ public class ItemRequestController {
     @GetMapping("/all")
     ResponseEntity<Object> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @Positive @RequestParam(name = "after", required = false) Long after) {
         log.info("Got List of item requests for user with id " + userId + "from " + from + "to " + size);
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+        return itemRequestClient.getAllItemRequests(userId, from, size, after);
+    }
+
+    @GetMapping("/stream")
+    ResponseEntity<StreamingResponseBody> subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) throws IOException {
+        log.info("User with id " + userId + " subscribed to the request stream from local client");
+        return itemRequestClient.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
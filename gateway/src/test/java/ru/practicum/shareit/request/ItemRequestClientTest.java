@@ -0,0 +1,85 @@
+package ru.practicum.shareit.request;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ItemRequestClientTest {
+    private static final int MAX_STREAMS = 8;
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private ItemRequestClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/requests/stream", this::holdStream);
+        server.createContext("/requests", exchange -> respond(exchange, "[]"));
+        server.setExecutor(executor);
+        server.start();
+        client = new ItemRequestClient("http://localhost:" + server.getAddress().getPort(), MAX_STREAMS,
+                Duration.ofMillis(500), new RestTemplateBuilder());
+    }
+
+    @AfterEach
+    void close() {
+        closed.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void openStreamsLeaveRequestCallsAnswering() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < MAX_STREAMS; i++) {
+                assertThat(client.subscribe((long) i).getStatusCode(), equalTo(HttpStatus.OK));
+            }
+            assertThat(client.subscribe(0L).getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+            for (int i = 0; i < MAX_STREAMS; i++) {
+                assertThat(client.getAllItemRequestByUserId(1L).getStatusCode(), equalTo(HttpStatus.OK));
+            }
+        });
+    }
+
+    private void holdStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        body.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+        body.flush();
+        try {
+            closed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly {@code end_time} partitions of {@code bookings} on PostgreSQL. Each run splits the
+ * months found in the default partition, and the next few months, into their own partitions, then detaches
+ * every partition that ended before the retention window and attaches it to {@code bookings_archive}.
+ * Moving a partition is a catalog change, so no rows are copied.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.archive.enabled", havingValue = "true")
+public class BookingPartitionArchiver {
+    private static final Pattern PARTITION = Pattern.compile("bookings_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Duration interval;
+    private final int monthsAhead;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookingPartitionArchiver(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${shareit.booking.archive.retention:365d}") Duration retention,
+                                    @Value("${shareit.booking.archive.interval:1d}") Duration interval,
+                                    @Value("${shareit.booking.archive.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.interval = interval;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            log.warn("Booking archive needs PostgreSQL partitions, disabled on " + database);
+            return;
+        }
+        Integer partitioned = jdbcTemplate.queryForObject("select count(*) from pg_partitioned_table " +
+                "where partrelid = to_regclass('bookings')", Integer.class);
+        if (partitioned == null || partitioned == 0) {
+            log.warn("Booking archive disabled: bookings is not partitioned, apply schema.sql to this database");
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::runSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        TreeSet<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.queryForList("select distinct cast(date_trunc('month', end_time) as date) " +
+                        "from bookings_default where end_time is not null", LocalDate.class)
+                .forEach(date -> months.add(YearMonth.from(date)));
+        for (int i = 0; i <= monthsAhead; i++) {
+            months.add(YearMonth.from(now).plusMonths(i));
+        }
+        months.forEach(this::ensurePartition);
+
+        YearMonth cutoff = YearMonth.from(now.minus(retention));
+        for (String partition : partitions("bookings")) {
+            Matcher matcher = PARTITION.matcher(partition);
+            if (matcher.matches()) {
+                YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX);
+                if (month.isBefore(cutoff)) {
+                    archive(partition, month);
+                }
+            }
+        }
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (DataAccessException e) {
+            log.error("Booking archive run failed", e);
+        }
+    }
+
+    private void ensurePartition(YearMonth month) {
+        String partition = "bookings_p" + month.format(SUFFIX);
+        if (!partitions("bookings").contains(partition) && !partitions("bookings_archive").contains(partition)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("create table " + partition +
+                        " (like bookings including defaults including constraints)");
+                jdbcTemplate.update("with moved as (delete from bookings_default " +
+                        "where end_time >= ? and end_time < ? returning *) " +
+                        "insert into " + partition + " select * from moved", lower(month), upper(month));
+                jdbcTemplate.execute("alter table bookings attach partition " + partition + bounds(month));
+            });
+            log.info("Created booking partition " + partition);
+        }
+    }
+
+    private void archive(String partition, YearMonth month) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("alter table bookings detach partition " + partition);
+            jdbcTemplate.execute("alter table bookings_archive attach partition " + partition + bounds(month));
+        });
+        log.info("Moved booking partition " + partition + " to the archive");
+    }
+
+    private List<String> partitions(String parent) {
+        return jdbcTemplate.queryForList("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "where i.inhparent = cast(? as regclass)", String.class, parent);
+    }
+
+    private static String bounds(YearMonth month) {
+        return " for values from ('" + lower(month) + "') to ('" + upper(month) + "')";
+    }
+
+    private static LocalDateTime lower(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private static LocalDateTime upper(YearMonth month) {
+        return month.plusMonths(1).atDay(1).atStartOfDay();
+    }
+}
@@ -2,15 +2,23 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @RestController
@@ -19,6 +27,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -28,6 +38,16 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingRequestDto);
     }
 
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                                      @RequestBody @NotEmpty @Size(max = 100)
+                                                                      List<@Valid BookingRequestDto> bookingRequestDtos) {
+        log.info("Batch of bookings for user with id " + userId + " received.");
+        List<BookingBatchResultDto> results = bookingService.createBookings(userId, bookingRequestDtos);
+        boolean created = results.stream().allMatch(result -> result.getBooking() != null);
+        return ResponseEntity.status(created ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(results);
+    }
+
     @PatchMapping(path = "/{bookingId}")
     public BookingDto updateBooking(@PathVariable Long bookingId,
                                     @RequestHeader(value = "X-Sharer-User-Id") Long userId,
@@ -36,6 +56,13 @@ public class BookingController {
         return bookingService.updateBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping(path = "/owner/bulk")
+    public List<BookingBatchResultDto> updateBookings(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                      @Valid @RequestBody BookingBulkRequestDto bookingBulkRequestDto) {
+        log.info("Bulk booking update for owner with id " + userId);
+        return bookingService.updateBookings(userId, bookingBulkRequestDto.getIds(), bookingBulkRequestDto.getApproved());
+    }
+
     @GetMapping(path = "/{bookingId}")
     public BookingDto findBookingByUserId(@PathVariable Long bookingId,
                                           @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
@@ -44,20 +71,59 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "ALL") BookingState state,
-                                         @RequestParam(defaultValue = "0") @Min(0) int from,
-                                         @RequestParam(defaultValue = "20") @Min(1) int size) {
+    public ResponseEntity<List<BookingDto>> findByBooker(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "ALL") BookingState state,
+                                                         @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                         @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                         @RequestParam(required = false) String cursor) {
         log.info("Received a list of bookings for all item's with owner id " + userId);
-        return bookingService.findByBooker(userId, state, from, size);
+        return withNextCursor(cursor == null
+                ? bookingService.findByBooker(userId, state, from, size)
+                : bookingService.findByBookerAfter(userId, state, cursor, size), size);
     }
 
     @GetMapping(path = "/owner")
-    public List<BookingDto> findByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                        @RequestParam(defaultValue = "ALL") BookingState state,
-                                        @RequestParam(defaultValue = "0") @Min(0) int from,
-                                        @RequestParam(defaultValue = "20") @Min(1) int size) {
+    public ResponseEntity<List<BookingDto>> findByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "ALL") BookingState state,
+                                                        @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                        @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                        @RequestParam(required = false) String cursor) {
         log.info("Received a list of bookings for all item's with booker id " + userId);
-        return bookingService.findByOwner(userId, state, from, size);
+        return withNextCursor(cursor == null
+                ? bookingService.findByOwner(userId, state, from, size)
+                : bookingService.findByOwnerAfter(userId, state, cursor, size), size);
+    }
+
+    @GetMapping(path = "/owner/pending")
+    public ResponseEntity<List<BookingDto>> findPendingByOwner(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                               @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                               @RequestParam(required = false) String cursor) {
+        log.info("Received a queue of pending bookings for owner with id " + userId);
+        return withNextCursor(cursor == null
+                ? bookingService.findPendingByOwner(userId, from, size)
+                : bookingService.findPendingByOwnerAfter(userId, cursor, size), size);
+    }
+
+    @GetMapping(path = "/summary")
+    public BookingSummaryDto getBookerSummary(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        log.info("Received a booking summary for booker with id " + userId);
+        return bookingService.getBookerSummary(userId);
+    }
+
+    @GetMapping(path = "/owner/summary")
+    public BookingSummaryDto getOwnerSummary(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        log.info("Received a booking summary for owner with id " + userId);
+        return bookingService.getOwnerSummary(userId);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new PageCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
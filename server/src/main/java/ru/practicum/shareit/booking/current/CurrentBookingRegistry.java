@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.current;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TimingWheel;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-booker and per-owner sets of bookings whose period covers the current time. A timing wheel adds each
+ * booking one tick before its start and drops it once its end has passed, so a set may briefly hold a
+ * booking that is not current yet but never misses one that is; callers still filter the fetched rows by time.
+ */
+@Slf4j
+@Component
+public class CurrentBookingRegistry {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 6;
+
+    private final BookingRepository bookingRepository;
+    private final long tickMillis;
+    private final TimingWheel<Transition> wheel;
+    private final Map<Long, Set<Long>> byBooker = new HashMap<>();
+    private final Map<Long, Set<Long>> byOwner = new HashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "current-bookings-ticker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean ready;
+
+    public CurrentBookingRegistry(BookingRepository bookingRepository,
+                                  @Value("${shareit.booking.current.tick:1s}") Duration tick,
+                                  MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+        Gauge.builder("shareit.booking.current.scheduled", this, CurrentBookingRegistry::scheduled)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<BookingItemView> bookings = bookingRepository.findAllEndingAfter(LocalDateTime.now());
+        bookings.forEach(booking -> register(booking.getId(), booking.getBookerId(), booking.getOwnerId(),
+                booking.getStart(), booking.getEnd()));
+        ready = true;
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Current booking registry seeded with " + bookings.size() + " unfinished bookings");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void register(Long bookingId, Long bookerId, Long ownerId, LocalDateTime start,
+                                      LocalDateTime end) {
+        long now = System.currentTimeMillis();
+        long endMillis = toMillis(end);
+        if (endMillis <= now) {
+            return;
+        }
+        wheel.advance(now, this::apply);
+        if (!wheel.schedule(toMillis(start) - tickMillis, new Transition(bookingId, bookerId, ownerId, true))) {
+            apply(new Transition(bookingId, bookerId, ownerId, true));
+        }
+        wheel.schedule(endMillis, new Transition(bookingId, bookerId, ownerId, false));
+    }
+
+    /**
+     * Ids of the user's bookings that may be current at this moment, a superset of the exact answer.
+     */
+    public synchronized Set<Long> findCurrentIds(BookingQuery.Role role, Long userId) {
+        wheel.advance(System.currentTimeMillis(), this::apply);
+        Set<Long> ids = (role == BookingQuery.Role.OWNER ? byOwner : byBooker).get(userId);
+        return ids == null ? Set.of() : new HashSet<>(ids);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private synchronized void advance() {
+        wheel.advance(System.currentTimeMillis(), this::apply);
+    }
+
+    private synchronized int scheduled() {
+        return wheel.size();
+    }
+
+    private void apply(Transition transition) {
+        if (transition.started) {
+            byBooker.computeIfAbsent(transition.bookerId, id -> new HashSet<>()).add(transition.bookingId);
+            byOwner.computeIfAbsent(transition.ownerId, id -> new HashSet<>()).add(transition.bookingId);
+        } else {
+            remove(byBooker, transition.bookerId, transition.bookingId);
+            remove(byOwner, transition.ownerId, transition.bookingId);
+        }
+    }
+
+    private static void remove(Map<Long, Set<Long>> sets, Long userId, Long bookingId) {
+        Set<Long> ids = sets.get(userId);
+        if (ids != null && ids.remove(bookingId) && ids.isEmpty()) {
+            sets.remove(userId);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static class Transition {
+        private final Long bookingId;
+        private final Long bookerId;
+        private final Long ownerId;
+        private final boolean started;
+
+        private Transition(Long bookingId, Long bookerId, Long ownerId, boolean started) {
+            this.bookingId = bookingId;
+            this.bookerId = bookerId;
+            this.ownerId = ownerId;
+            this.started = started;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBulkRequestDto {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotNull Long> ids;
+    @NotNull
+    private Boolean approved;
+}
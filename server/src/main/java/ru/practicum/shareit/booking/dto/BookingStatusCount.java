@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public interface BookingStatusCount {
+    BookingStatus getStatus();
+
+    Long getTotal();
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+/**
+ * Bloom filter of the (booker, item) pairs that have at least one approved booking, seeded from the live and
+ * archive tables at startup in id batches and extended on every approval. A negative answer proves the booker never had an
+ * approved booking of the item, so the comment can be rejected without a query; until the seed finishes every
+ * pair is reported as possible.
+ */
+@Slf4j
+@Component
+public class ApprovedBookingFilter {
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BloomFilter filter;
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean ready;
+
+    public ApprovedBookingFilter(BookingRepository bookingRepository,
+                                 ArchivedBookingRepository archivedBookingRepository,
+                                 @Value("${shareit.booking.approved-filter.expected-pairs:1000000}") long pairs,
+                                 @Value("${shareit.booking.approved-filter.fpp:0.01}") double fpp,
+                                 MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.filter = new BloomFilter(pairs, fpp);
+        FunctionCounter.builder("shareit.booking.approved-filter.rejections", rejected, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long seeded = seed(bookingRepository::findBookerItemPairsByStatusAfter)
+                + seed(archivedBookingRepository::findBookerItemPairsByStatusAfter);
+        ready = true;
+        log.info("Approved booking filter seeded with " + seeded + " approved bookings");
+    }
+
+    private long seed(PairSource source) {
+        long seeded = 0;
+        List<BookingItemView> batch = source.find(APPROVED, 0L, Pageable.ofSize(SEED_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(pair -> add(pair.getBookerId(), pair.getItemId()));
+            seeded += batch.size();
+            batch = source.find(APPROVED, batch.get(batch.size() - 1).getId(), Pageable.ofSize(SEED_BATCH_SIZE));
+        }
+        return seeded;
+    }
+
+    public void add(Long bookerId, Long itemId) {
+        filter.put(key(bookerId, itemId));
+    }
+
+    public boolean mightHaveApproved(Long bookerId, Long itemId) {
+        if (!ready || filter.mightContain(key(bookerId, itemId))) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private static long key(Long bookerId, Long itemId) {
+        return bookerId * 0x9e3779b97f4a7c15L ^ itemId;
+    }
+
+    private interface PairSource {
+        List<BookingItemView> find(BookingStatus status, Long after, Pageable page);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.interval;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.InvalidBookingException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+/**
+ * Per-item index of approved booking intervals, keyed by start time.
+ * Approved intervals never overlap, so their ends are ordered like their starts and a single
+ * lower-entry lookup decides whether a new interval collides with any of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Intervals> items = new ConcurrentHashMap<>();
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Intervals intervals = intervals(itemId);
+        synchronized (intervals) {
+            return intervals.overlaps(start, end);
+        }
+    }
+
+    public void checkAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (overlaps(itemId, start, end)) {
+            throw new InvalidBookingException("Item with id " + itemId + " is already booked for this period");
+        }
+    }
+
+    /**
+     * Atomically checks the interval against approved bookings and reserves it for the booking.
+     * Inside a transaction the reservation is released again if the transaction does not commit.
+     */
+    public void reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        Intervals intervals = intervals(itemId);
+        synchronized (intervals) {
+            if (intervals.overlaps(start, end)) {
+                throw new InvalidBookingException("Item with id " + itemId + " is already booked for this period");
+            }
+            intervals.prune(LocalDateTime.now());
+            intervals.starts.put(start, new Interval(end, bookingId));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(itemId, bookingId, start);
+                    }
+                }
+            });
+        }
+    }
+
+    public void release(Long itemId, Long bookingId, LocalDateTime start) {
+        Intervals intervals = items.get(itemId);
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals) {
+            Interval interval = intervals.starts.get(start);
+            if (interval != null && bookingId.equals(interval.bookingId)) {
+                intervals.starts.remove(start);
+            }
+        }
+    }
+
+    private Intervals intervals(Long itemId) {
+        Intervals intervals = items.computeIfAbsent(itemId, id -> new Intervals());
+        synchronized (intervals) {
+            if (!intervals.loaded) {
+                intervals.load(bookingRepository.findIntervalsByItemId(itemId, APPROVED, LocalDateTime.now()));
+                log.info("Booking intervals loaded for item with id " + itemId);
+            }
+        }
+        return intervals;
+    }
+
+    private static class Intervals {
+        private final TreeMap<LocalDateTime, Interval> starts = new TreeMap<>();
+        private boolean loaded;
+
+        private void load(Iterable<BookingItemView> bookings) {
+            Map.Entry<LocalDateTime, Interval> last = null;
+            for (BookingItemView booking : bookings) {
+                if (last != null && booking.getStart().isBefore(last.getValue().end)) {
+                    if (booking.getEnd().isAfter(last.getValue().end)) {
+                        last.getValue().end = booking.getEnd();
+                    }
+                    continue;
+                }
+                starts.put(booking.getStart(), new Interval(booking.getEnd(), booking.getId()));
+                last = starts.lastEntry();
+            }
+            loaded = true;
+        }
+
+        private boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Interval> before = starts.lowerEntry(end);
+            return before != null && before.getValue().end.isAfter(start);
+        }
+
+        private void prune(LocalDateTime now) {
+            while (!starts.isEmpty() && !starts.firstEntry().getValue().end.isAfter(now)) {
+                starts.pollFirstEntry();
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Interval {
+        private LocalDateTime end;
+        private final Long bookingId;
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -25,6 +27,17 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toBookingDto(ArchivedBooking booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .booker(booking.getBooker())
+                .status(booking.getStatus())
+                .item(booking.getItem())
+                .build();
+    }
+
     public static Booking toBooking(BookingRequestDto bookingRequestDto, User user, Item item) {
         return Booking.builder()
                 .start(bookingRequestDto.getStart())
@@ -44,6 +57,16 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingShortDto toBookingShortDto(BookingItemView booking) {
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static List<BookingDto> getListOfBookingDto(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
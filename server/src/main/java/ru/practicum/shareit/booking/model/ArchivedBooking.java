@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of bookings whose partitions were moved out of {@code bookings} by the archiver.
+ * Attribute names match {@link Booking}, so the same criteria queries run against both tables.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "bookings_archive", indexes = {
+        @Index(name = "idx_bookings_archive_booker_start_id", columnList = "booker_id, start_time, id"),
+        @Index(name = "idx_bookings_archive_owner_start_id", columnList = "owner_id, start_time, id"),
+        @Index(name = "idx_bookings_archive_item_start", columnList = "item_id, start_time"),
+        @Index(name = "idx_bookings_archive_booker_item_status_end", columnList = "booker_id, item_id, status, end_time"),
+        @Index(name = "idx_bookings_archive_status_id", columnList = "status, id")
+})
+public class ArchivedBooking {
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "start_time")
+    private LocalDateTime start;
+
+    @Column(name = "end_time")
+    private LocalDateTime end;
+
+    @ManyToOne
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @ManyToOne
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Enumerated(value = EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "version")
+    private Long version;
+}
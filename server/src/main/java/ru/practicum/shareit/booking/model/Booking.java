@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -13,10 +14,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_item_status_start_end", columnList = "item_id, status, start_time, end_time"),
+        @Index(name = "idx_bookings_booker_start_id", columnList = "booker_id, start_time, id"),
+        @Index(name = "idx_bookings_booker_status_start_id", columnList = "booker_id, status, start_time, id"),
+        @Index(name = "idx_bookings_owner_start_id", columnList = "owner_id, start_time, id"),
+        @Index(name = "idx_bookings_owner_status_start_id", columnList = "owner_id, status, start_time, id"),
+        @Index(name = "idx_bookings_status_id", columnList = "status, id"),
+        @Index(name = "idx_bookings_booker_item_status_end", columnList = "booker_id, item_id, status, end_time")
+})
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -34,6 +44,21 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    @Column(name = "owner_id", updatable = false)
+    private Long ownerId;
+
     @Enumerated(value = EnumType.STRING)
     private BookingStatus status;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @PrePersist
+    private void copyItemOwner() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
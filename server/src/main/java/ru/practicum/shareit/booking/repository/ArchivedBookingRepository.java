@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.dto.BookingStatusCount;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    boolean existsByBookerIdAndItemIdAndStatusAndEndIsBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                             LocalDateTime now);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId from ArchivedBooking b " +
+            "where b.status = ?1 and b.id > ?2 " +
+            "order by b.id")
+    List<BookingItemView> findBookerItemPairsByStatusAfter(BookingStatus status, Long after, Pageable page);
+
+    @Query("select b.status as status, count(b) as total from ArchivedBooking b where b.booker.id = ?1 group by b.status")
+    List<BookingStatusCount> countByBookerIdGroupByStatus(Long bookerId);
+
+    @Query("select b.status as status, count(b) as total from ArchivedBooking b where b.item.owner.id = ?1 " +
+            "group by b.status")
+    List<BookingStatusCount> countByOwnerIdGroupByStatus(Long ownerId);
+}
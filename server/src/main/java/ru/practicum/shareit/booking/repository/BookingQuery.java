@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Getter
+@Builder
+public class BookingQuery {
+    private final Role role;
+    private final Long userId;
+    private final BookingState state;
+    private final LocalDateTime now;
+    private final Collection<Long> ids;
+    private final PageCursor cursor;
+    private final int offset;
+    private final int limit;
+
+    public enum Role {
+        BOOKER, OWNER
+    }
+}
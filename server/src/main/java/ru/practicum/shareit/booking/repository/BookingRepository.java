@@ -1,45 +1,122 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.dto.BookingStatusCount;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable page);
-
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long userId, LocalDateTime now,
-                                                                                 LocalDateTime now1, Pageable page);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus bookingStatus, Pageable page);
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long bookerId, Pageable page);
-
-    List<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable page);
-
-    List<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable page);
-
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long bookerId, LocalDateTime now,
-                                                                                    LocalDateTime now1, Pageable page);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus bookingStatus, Pageable page);
-
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     Optional<Booking> findTopByItemIdAndStatusAndStartIsAfterOrderByStart(Long itemId, BookingStatus bookingStatus, LocalDateTime now);
 
     Optional<Booking> findTopByItemIdAndStatusAndStartIsBeforeOrderByEndDesc(Long itemId, BookingStatus bookingStatus, LocalDateTime now);
 
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId, BookingStatus approved,
-                                                                          LocalDateTime now);
-
+    boolean existsByBookerIdAndItemIdAndStatusAndEndIsBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                             LocalDateTime now);
+
+    @Query("select b.item.id from Booking b where b.id = ?1")
+    Optional<Long> findItemIdById(Long id);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.item.owner.id as ownerId " +
+            "from Booking b " +
+            "where b.end > ?1")
+    List<BookingItemView> findAllEndingAfter(LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.status as status " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "and b.status = :status " +
+            "and ((b.end < :now and b.end = (select max(l.end) from Booking l " +
+            "where l.item.id = b.item.id and l.status = :status and l.end < :now)) " +
+            "or (b.start > :now and b.start = (select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.status = :status and n.start > :now)))")
+    List<BookingItemView> findLastAndNextByItemIdIn(Collection<Long> itemIds, BookingStatus status, LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.status as status " +
+            "from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.end > ?3 " +
+            "order by b.start")
+    List<BookingItemView> findIntervalsByItemId(Long itemId, BookingStatus status, LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.status as status " +
+            "from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3 and b.start < ?4 " +
+            "order by b.start")
+    List<BookingItemView> findIntervalsByItemIdInRange(Long itemId, Collection<BookingStatus> statuses,
+                                                       LocalDateTime from, LocalDateTime to);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.ownerId = ?1 and b.status = ?2 and b.start > ?3 " +
+            "order by b.start, b.id")
+    List<Booking> findQueueByOwnerId(Long ownerId, BookingStatus status, LocalDateTime now, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b " +
+            "where b.ownerId = ?1 and b.status = ?2 and b.start > ?3 " +
+            "and (b.start > ?4 or b.start = ?4 and b.id > ?5) " +
+            "order by b.start, b.id")
+    List<Booking> findQueueByOwnerIdAfter(Long ownerId, BookingStatus status, LocalDateTime now,
+                                          LocalDateTime afterStart, Long afterId, Pageable page);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select distinct b.item.id from Booking b where b.id in ?1")
+    List<Long> findItemIdsByIdIn(Collection<Long> ids);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.status as status " +
+            "from Booking b " +
+            "where b.id in ?1 and b.item.owner.id = ?2")
+    List<BookingItemView> findOwnedByIdIn(Collection<Long> ids, Long ownerId);
+
+    @Query("select b.item.id as itemId, b.id as id, b.start as start, b.end as end, " +
+            "b.booker.id as bookerId, b.item.owner.id as ownerId, b.status as status " +
+            "from Booking b " +
+            "where b.id in ?1 and b.status = ?2")
+    List<BookingItemView> findViewsByIdInAndStatus(Collection<Long> ids, BookingStatus status);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId from Booking b " +
+            "where b.status = ?1 and b.id > ?2 " +
+            "order by b.id")
+    List<BookingItemView> findBookerItemPairsByStatusAfter(BookingStatus status, Long after, Pageable page);
+
+    @Query("select b.status as status, count(b) as total from Booking b where b.booker.id = ?1 group by b.status")
+    List<BookingStatusCount> countByBookerIdGroupByStatus(Long bookerId);
+
+    @Query("select b.status as status, count(b) as total from Booking b where b.item.owner.id = ?1 group by b.status")
+    List<BookingStatusCount> countByOwnerIdGroupByStatus(Long ownerId);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b where b.booker.id = ?1 and b.end > ?2")
+    List<BookingItemView> findIntervalsByBookerIdEndingAfter(Long bookerId, LocalDateTime now);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b where b.item.owner.id = ?1 and b.end > ?2")
+    List<BookingItemView> findIntervalsByOwnerIdEndingAfter(Long ownerId, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?2, b.version = coalesce(b.version, 0) + 1 " +
+            "where b.id in ?1 and b.status = ?3")
+    int updateStatusByIdIn(Collection<Long> ids, BookingStatus status, BookingStatus expected);
+
+    @Query("select b.id from Booking b where b.status = ?1 and b.start < ?2 and b.id > ?3 order by b.id")
+    List<Long> findIdsByStatusAndStartBefore(BookingStatus status, LocalDateTime now, Long after, Pageable page);
+
+    @Query("select min(b.start) from Booking b where b.status = ?1 and b.start < ?2")
+    Optional<LocalDateTime> findOldestStartByStatusBefore(BookingStatus status, LocalDateTime now);
 }
-
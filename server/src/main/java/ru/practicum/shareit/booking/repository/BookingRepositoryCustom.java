@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<BookingDto> findPage(BookingQuery query);
+}
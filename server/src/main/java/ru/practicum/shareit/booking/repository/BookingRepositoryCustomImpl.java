@@ -0,0 +1,192 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+/**
+ * Compiles a {@link BookingQuery} into a tuple query. Every value is bound as a named parameter, so the SQL
+ * depends only on role, state, whether a cursor is present and the size of the id list, and Hibernate reuses
+ * one plan per such shape. PAST and ALL also read the archive table and merge both ordered windows. An id
+ * list longer than {@value #MAX_IDS_PER_QUERY} is split into chunks whose windows are merged the same way, so
+ * no statement exceeds the driver's bind parameter limit.
+ */
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final Comparator<BookingDto> NEWEST_FIRST = Comparator.comparing(BookingDto::getStart)
+            .thenComparing(BookingDto::getId)
+            .reversed();
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findPage(BookingQuery query) {
+        boolean archived = query.getState() == BookingState.PAST || query.getState() == BookingState.ALL;
+        List<Collection<Long>> chunks = chunks(query.getIds());
+        if (!archived && chunks.size() == 1) {
+            return fetch(Booking.class, query, chunks.get(0), query.getOffset(), query.getLimit());
+        }
+        int window = query.getOffset() + query.getLimit();
+        List<BookingDto> bookings = new ArrayList<>();
+        for (Collection<Long> ids : chunks) {
+            bookings.addAll(fetch(Booking.class, query, ids, 0, window));
+            if (archived) {
+                bookings.addAll(fetch(ArchivedBooking.class, query, ids, 0, window));
+            }
+        }
+        bookings.sort(NEWEST_FIRST);
+        return bookings.subList(Math.min(query.getOffset(), bookings.size()), Math.min(window, bookings.size()));
+    }
+
+    private static List<Collection<Long>> chunks(Collection<Long> ids) {
+        if (ids == null || ids.size() <= MAX_IDS_PER_QUERY) {
+            return Collections.singletonList(ids);
+        }
+        List<Collection<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(MAX_IDS_PER_QUERY);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == MAX_IDS_PER_QUERY) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(MAX_IDS_PER_QUERY);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private List<BookingDto> fetch(Class<?> entity, BookingQuery query, Collection<Long> ids, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        Root<?> booking = criteria.from(entity);
+        Join<?, ?> item = booking.join("item");
+        Join<?, ?> booker = booking.join("booker");
+        Join<?, ?> owner = item.join("owner");
+        Join<?, ?> request = item.join("request", JoinType.LEFT);
+        Join<?, ?> requester = request.join("requester", JoinType.LEFT);
+        Map<String, Object> parameters = new HashMap<>();
+
+        List<Predicate> predicates = new ArrayList<>();
+        Path<Long> userPath = query.getRole() == BookingQuery.Role.OWNER
+                ? booking.get("ownerId")
+                : booker.get("id");
+        predicates.add(builder.equal(userPath, parameter(builder, parameters, "userId", Long.class, query.getUserId())));
+        predicates.addAll(statePredicates(builder, booking, parameters, query));
+        if (ids != null) {
+            predicates.add(booking.get("id").in(parameter(builder, parameters, "ids", Collection.class, ids)));
+        }
+        if (query.getCursor() != null) {
+            Expression<LocalDateTime> cursorStart = parameter(builder, parameters, "cursorStart", LocalDateTime.class,
+                    query.getCursor().getTime());
+            predicates.add(builder.or(
+                    builder.lessThan(booking.get("start"), cursorStart),
+                    builder.and(
+                            builder.equal(booking.get("start"), cursorStart),
+                            builder.lessThan(booking.get("id"), parameter(builder, parameters, "cursorId", Long.class,
+                                    query.getCursor().getId())))));
+        }
+
+        criteria.multiselect(
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        item.get("commentCount"), item.get("version"),
+                        owner.get("id"), owner.get("name"), owner.get("email"),
+                        request.get("id"), request.get("description"), request.get("created"),
+                        requester.get("id"), requester.get("name"), requester.get("email"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.desc(booking.get("start")), builder.desc(booking.get("id")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(criteria)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        parameters.forEach(typedQuery::setParameter);
+        return typedQuery.getResultList().stream()
+                .map(BookingRepositoryCustomImpl::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<Predicate> statePredicates(CriteriaBuilder builder, Root<?> booking,
+                                            Map<String, Object> parameters, BookingQuery query) {
+        switch (query.getState()) {
+            case ALL:
+                return List.of();
+            case PAST:
+                return List.of(builder.lessThan(booking.get("end"),
+                        parameter(builder, parameters, "now", LocalDateTime.class, query.getNow())));
+            case FUTURE:
+                return List.of(builder.greaterThan(booking.get("start"),
+                        parameter(builder, parameters, "now", LocalDateTime.class, query.getNow())));
+            case CURRENT:
+                Expression<LocalDateTime> now = parameter(builder, parameters, "now", LocalDateTime.class, query.getNow());
+                return List.of(builder.lessThan(booking.get("start"), now), builder.greaterThan(booking.get("end"), now));
+            case WAITING:
+                return List.of(builder.equal(booking.get("status"),
+                        parameter(builder, parameters, "status", BookingStatus.class, WAITING)));
+            case REJECTED:
+                return List.of(builder.equal(booking.get("status"),
+                        parameter(builder, parameters, "status", BookingStatus.class, REJECTED)));
+            default:
+                throw new IllegalArgumentException("Unknown state: " + query.getState());
+        }
+    }
+
+    private static <T> ParameterExpression<T> parameter(CriteriaBuilder builder, Map<String, Object> parameters,
+                                                        String name, Class<T> type, T value) {
+        parameters.put(name, value);
+        return builder.parameter(type, name);
+    }
+
+    private static BookingDto toBookingDto(Tuple tuple) {
+        return BookingDto.builder()
+                .id(tuple.get(0, Long.class))
+                .start(tuple.get(1, LocalDateTime.class))
+                .end(tuple.get(2, LocalDateTime.class))
+                .status(tuple.get(3, BookingStatus.class))
+                .item(Item.builder()
+                        .id(tuple.get(4, Long.class))
+                        .name(tuple.get(5, String.class))
+                        .description(tuple.get(6, String.class))
+                        .available(tuple.get(7, Boolean.class))
+                        .commentCount(tuple.get(11, Long.class))
+                        .version(tuple.get(12, Long.class))
+                        .owner(toUser(tuple, 13))
+                        .request(tuple.get(16) == null ? null : ItemRequest.builder()
+                                .id(tuple.get(16, Long.class))
+                                .description(tuple.get(17, String.class))
+                                .created(tuple.get(18, LocalDateTime.class))
+                                .requester(toUser(tuple, 19))
+                                .build())
+                        .build())
+                .booker(toUser(tuple, 8))
+                .build();
+    }
+
+    private static User toUser(Tuple tuple, int first) {
+        return User.builder()
+                .id(tuple.get(first, Long.class))
+                .name(tuple.get(first + 1, String.class))
+                .email(tuple.get(first + 2, String.class))
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.util.StripedLock;
+
+import java.time.Duration;
+
+@Configuration
+public class BookingLockConfiguration {
+
+    @Bean
+    public StripedLock itemLocks(@Value("${shareit.booking.lock.stripes:64}") int stripes,
+                                 @Value("${shareit.booking.lock.timeout:5s}") Duration timeout) {
+        return new StripedLock(stripes, timeout);
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
 import java.util.List;
@@ -10,11 +12,27 @@ public interface BookingService {
 
     BookingDto createBooking(Long userId, BookingRequestDto bookingRequestDto);
 
+    List<BookingBatchResultDto> createBookings(Long userId, List<BookingRequestDto> bookingRequestDtos);
+
     BookingDto updateBooking(Long id, Long userId, Boolean approved);
 
+    List<BookingBatchResultDto> updateBookings(Long userId, List<Long> ids, Boolean approved);
+
     BookingDto findBookingByUserId(Long id, Long userId);
 
     List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size);
 
+    List<BookingDto> findByBookerAfter(Long userId, BookingState state, String cursor, int size);
+
     List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size);
+
+    List<BookingDto> findByOwnerAfter(Long userId, BookingState state, String cursor, int size);
+
+    List<BookingDto> findPendingByOwner(Long userId, int from, int size);
+
+    List<BookingDto> findPendingByOwnerAfter(Long userId, String cursor, int size);
+
+    BookingSummaryDto getBookerSummary(Long userId);
+
+    BookingSummaryDto getOwnerSummary(Long userId);
 }
@@ -4,27 +4,41 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.current.CurrentBookingRegistry;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.filter.ApprovedBookingFilter;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
 import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.PageCursor;
+import ru.practicum.shareit.util.StripedLock;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.*;
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.BOOKER;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.OWNER;
 
 @Service
 @Slf4j
@@ -33,8 +47,13 @@ public class BookingServiceImpl implements BookingService {
 
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final ItemRepository itemRepository;
-    private final Sort sort = Sort.by(Sort.Direction.DESC, "end");
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final CurrentBookingRegistry currentBookings;
+    private final BookingSummaryCounters summaryCounters;
+    private final ApprovedBookingFilter approvedBookingFilter;
+    private final StripedLock itemLocks;
 
     @Override
     @Transactional
@@ -47,16 +66,65 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getAvailable()) {
             throw new InvalidBookingException("Item with id " + item.getId() + " is not available for booking");
         }
+        bookingIntervalIndex.checkAvailable(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
 
         Booking booking = toBooking(bookingRequestDto, booker, item);
         booking.setStatus(WAITING);
+        Booking saved = bookingRepository.save(booking);
+        registerCreated(saved);
         log.info("Booking for user with id " + userId + " done");
-        return toBookingDto(bookingRepository.save(booking));
+        return toBookingDto(saved);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(Long userId, List<BookingRequestDto> bookingRequestDtos) {
+        User booker = getUserById(userId);
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(bookingRequestDtos.stream()
+                        .map(BookingRequestDto::getItemId)
+                        .collect(Collectors.toSet()))
+                .forEach(item -> items.put(item.getId(), item));
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        boolean rejected = false;
+        for (int i = 0; i < bookingRequestDtos.size(); i++) {
+            BookingRequestDto bookingRequestDto = bookingRequestDtos.get(i);
+            Item item = items.get(bookingRequestDto.getItemId());
+            String error = checkBookable(userId, item, bookingRequestDto);
+            results.add(BookingBatchResultDto.builder()
+                    .index(i)
+                    .itemId(bookingRequestDto.getItemId())
+                    .error(error)
+                    .build());
+            if (error != null) {
+                rejected = true;
+                continue;
+            }
+            Booking booking = toBooking(bookingRequestDto, booker, item);
+            booking.setStatus(WAITING);
+            bookings.add(booking);
+        }
+        if (rejected) {
+            log.info("Batch of " + bookingRequestDtos.size() + " bookings for user with id " + userId + " rejected");
+            return results;
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            registerCreated(saved.get(i));
+            results.get(i).setBooking(toBookingDto(saved.get(i)));
+        }
+        log.info("Batch of " + saved.size() + " bookings for user with id " + userId + " done");
+        return results;
     }
 
     @Override
     @Transactional
     public BookingDto updateBooking(Long id, Long userId, Boolean approved) {
+        itemLocks.lockUntilCompletion(bookingRepository.findItemIdById(id).orElseThrow(() ->
+                new ModelNotFoundException("Booking not found.")));
         Booking booking = getBookingById(id);
 
         if (!booking.getItem().getOwner().getId().equals(userId) || booking.getStart().isBefore(LocalDateTime.now())) {
@@ -66,21 +134,91 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidBookingException("Unable to change booking status.");
         }
         if (approved) {
+            bookingIntervalIndex.reserve(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            approvedBookingFilter.add(booking.getBooker().getId(), booking.getItem().getId());
             booking.setStatus(APPROVED);
         } else {
             booking.setStatus(REJECTED);
         }
+        summaryCounters.statusChanged(booking.getBooker().getId(), userId, WAITING, booking.getStatus());
         log.info("Booking updated for user with id " + userId);
         return toBookingDto(bookingRepository.save(booking));
     }
 
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateBookings(Long userId, List<Long> ids, Boolean approved) {
+        getUserById(userId);
+        itemLocks.lockAllUntilCompletion(bookingRepository.findItemIdsByIdIn(ids));
+        Map<Long, BookingItemView> owned = bookingRepository.findOwnedByIdIn(ids, userId).stream()
+                .collect(Collectors.toMap(BookingItemView::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, String> errors = new HashMap<>();
+        List<BookingItemView> accepted = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            BookingItemView booking = owned.get(id);
+            if (booking == null) {
+                errors.put(id, "Booking not found.");
+            } else if (booking.getStatus() != WAITING) {
+                errors.put(id, "Unable to change booking status.");
+            } else if (booking.getStart().isBefore(now)) {
+                errors.put(id, "Item cannot be booked");
+            } else {
+                accepted.add(booking);
+            }
+        }
+        if (approved) {
+            accepted.sort(Comparator.comparing(BookingItemView::getStart));
+            accepted.removeIf(booking -> {
+                try {
+                    bookingIntervalIndex.reserve(booking.getItemId(), booking.getId(), booking.getStart(), booking.getEnd());
+                    return false;
+                } catch (InvalidBookingException e) {
+                    errors.put(booking.getId(), e.getMessage());
+                    return true;
+                }
+            });
+        }
+
+        Map<Long, Booking> updated = new HashMap<>();
+        if (!accepted.isEmpty()) {
+            List<Long> acceptedIds = accepted.stream().map(BookingItemView::getId).collect(Collectors.toList());
+            bookingRepository.updateStatusByIdIn(acceptedIds, approved ? APPROVED : REJECTED, WAITING);
+            accepted.forEach(booking -> {
+                summaryCounters.statusChanged(booking.getBookerId(), userId, WAITING, approved ? APPROVED : REJECTED);
+                if (approved) {
+                    approvedBookingFilter.add(booking.getBookerId(), booking.getItemId());
+                }
+            });
+            bookingRepository.findAllByIdIn(acceptedIds).forEach(booking -> updated.put(booking.getId(), booking));
+        }
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Booking booking = updated.get(id);
+            results.add(BookingBatchResultDto.builder()
+                    .index(i)
+                    .itemId(owned.containsKey(id) ? owned.get(id).getItemId() : null)
+                    .booking(booking == null ? null : toBookingDto(booking))
+                    .error(booking == null ? errors.get(id) : null)
+                    .build());
+        }
+        log.info("Bulk update of " + updated.size() + " bookings for owner with id " + userId + " done");
+        return results;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingDto findBookingByUserId(Long id, Long userId) {
-        Booking booking = getBookingById(id);
+        BookingDto booking = bookingRepository.findById(id)
+                .map(BookingMapper::toBookingDto)
+                .or(() -> archivedBookingRepository.findById(id).map(BookingMapper::toBookingDto))
+                .orElseThrow(() -> new ModelNotFoundException("Booking not found."));
         if (booking.getItem().getOwner().getId().equals(userId) || booking.getBooker().getId().equals(userId)) {
             log.info("Booking with id " + id + " found");
-            return BookingMapper.toBookingDto(booking);
+            return booking;
         } else {
             throw new ModelNotFoundException("Unable to get information about the item");
         }
@@ -90,70 +228,128 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public List<BookingDto> findByBooker(Long userId, BookingState state, int from, int size) {
         getUserById(userId);
-
-        List<Booking> bookings;
-        Pageable page = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, REJECTED, page);
-                break;
-            default:
-                throw new InvalidBookingException("Unknown state: " + state);
-        }
+        List<BookingDto> bookings = findPage(BOOKER, userId, state, null, from / size * size, size);
         log.info("Received a list of bookings for all items with booker id " + userId);
-        return getListOfBookingDto(bookings);
+        return bookings;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size) {
+    public List<BookingDto> findByBookerAfter(Long userId, BookingState state, String cursor, int size) {
         getUserById(userId);
+        List<BookingDto> bookings = findPage(BOOKER, userId, state, decodeCursor(cursor), 0, size);
+        log.info("Received a page of bookings after cursor for booker id " + userId);
+        return bookings;
+    }
 
-        List<Booking> bookings;
-        Pageable page = PageRequest.of(from / size, size, sort);
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, page);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), page);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), LocalDateTime.now(), page);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, WAITING, page);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, REJECTED, page);
-                break;
-            default:
-                throw new InvalidBookingException("Unknown state: " + state);
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByOwner(Long userId, BookingState state, int from, int size) {
+        getUserById(userId);
+        List<BookingDto> bookings = findPage(OWNER, userId, state, null, from / size * size, size);
         log.info("Received a list of bookings for all items with owner id " + userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findByOwnerAfter(Long userId, BookingState state, String cursor, int size) {
+        getUserById(userId);
+        List<BookingDto> bookings = findPage(OWNER, userId, state, decodeCursor(cursor), 0, size);
+        log.info("Received a page of bookings after cursor for owner id " + userId);
+        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findPendingByOwner(Long userId, int from, int size) {
+        getUserById(userId);
+        List<Booking> bookings = bookingRepository.findQueueByOwnerId(userId, WAITING, LocalDateTime.now(),
+                PageRequest.of(from / size, size));
+        log.info("Received a queue of pending bookings for owner with id " + userId);
         return getListOfBookingDto(bookings);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findPendingByOwnerAfter(Long userId, String cursor, int size) {
+        getUserById(userId);
+        PageCursor after = decodeCursor(cursor);
+        List<Booking> bookings = bookingRepository.findQueueByOwnerIdAfter(userId, WAITING, LocalDateTime.now(),
+                after.getTime(), after.getId(), Pageable.ofSize(size));
+        log.info("Received a page of pending bookings after cursor for owner with id " + userId);
+        return getListOfBookingDto(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookerSummary(Long userId) {
+        getUserById(userId);
+        log.info("Received a booking summary for booker with id " + userId);
+        return summaryCounters.get(BOOKER, userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getOwnerSummary(Long userId) {
+        getUserById(userId);
+        log.info("Received a booking summary for owner with id " + userId);
+        return summaryCounters.get(OWNER, userId);
+    }
+
+    private String checkBookable(Long userId, Item item, BookingRequestDto bookingRequestDto) {
+        if (item == null) {
+            return "Invalid item ID";
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            return "Item cannot be booked";
+        }
+        if (!item.getAvailable()) {
+            return "Item with id " + item.getId() + " is not available for booking";
+        }
+        if (bookingIntervalIndex.overlaps(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+            return "Item with id " + item.getId() + " is already booked for this period";
+        }
+        return null;
+    }
+
+    private void registerCreated(Booking booking) {
+        Long ownerId = booking.getItem().getOwner().getId();
+        currentBookings.register(booking.getId(), booking.getBooker().getId(), ownerId, booking.getStart(),
+                booking.getEnd());
+        summaryCounters.created(booking.getBooker().getId(), ownerId, booking.getStart(), booking.getEnd(),
+                booking.getStatus());
+    }
+
+    private List<BookingDto> findPage(BookingQuery.Role role, Long userId, BookingState state, PageCursor cursor,
+                                      int offset, int size) {
+        Set<Long> ids = null;
+        if (state == BookingState.CURRENT && currentBookings.isReady()) {
+            ids = currentBookings.findCurrentIds(role, userId);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        return bookingRepository.findPage(BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(LocalDateTime.now())
+                .ids(ids)
+                .cursor(cursor)
+                .offset(offset)
+                .limit(size)
+                .build());
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBookingException("Invalid cursor: " + cursor);
+        }
+    }
+
     private User getUserById(Long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new ModelNotFoundException("Invalid user ID"));
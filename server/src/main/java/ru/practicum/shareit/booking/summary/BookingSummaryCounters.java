@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.dto.BookingStatusCount;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+/**
+ * Per-user booking counts by state for the booker and owner views, loaded from the live and archive tables
+ * on first read and then kept up to date by the booking writes. Status counts change only on writes; the
+ * time-based counts keep the starts and ends still ahead in min-heaps that are drained on read.
+ * A load that overlaps an in-flight write is returned but not cached, so a committed change is never
+ * counted twice or lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSummaryCounters {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final Map<Long, Summary> byBooker = new ConcurrentHashMap<>();
+    private final Map<Long, Summary> byOwner = new ConcurrentHashMap<>();
+
+    public BookingSummaryDto get(BookingQuery.Role role, Long userId) {
+        Summary summary = summaries(role).computeIfAbsent(userId, id -> new Summary());
+        LocalDateTime now = LocalDateTime.now();
+        long changes;
+        synchronized (summary) {
+            if (summary.loaded) {
+                return summary.toSummaryDto(now);
+            }
+            changes = summary.pending == 0 ? summary.changes : -1;
+        }
+        Summary loaded = load(role, userId, now);
+        synchronized (summary) {
+            if (!summary.loaded && changes == summary.changes && summary.pending == 0) {
+                summary.copy(loaded);
+                return summary.toSummaryDto(now);
+            }
+        }
+        return loaded.toSummaryDto(now);
+    }
+
+    public void created(Long bookerId, Long ownerId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        apply(bookerId, ownerId, summary -> summary.add(start, end, status));
+    }
+
+    public void statusChanged(Long bookerId, Long ownerId, BookingStatus from, BookingStatus to) {
+        apply(bookerId, ownerId, summary -> summary.move(from, to));
+    }
+
+    private void apply(Long bookerId, Long ownerId, Consumer<Summary> change) {
+        List<Summary> summaries = List.of(byBooker.computeIfAbsent(bookerId, id -> new Summary()),
+                byOwner.computeIfAbsent(ownerId, id -> new Summary()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            summaries.forEach(summary -> summary.complete(change, true));
+            return;
+        }
+        summaries.forEach(Summary::begin);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                summaries.forEach(summary -> summary.complete(change, status == STATUS_COMMITTED));
+            }
+        });
+    }
+
+    private Summary load(BookingQuery.Role role, Long userId, LocalDateTime now) {
+        boolean owner = role == BookingQuery.Role.OWNER;
+        List<BookingStatusCount> counts = new ArrayList<>(owner
+                ? bookingRepository.countByOwnerIdGroupByStatus(userId)
+                : bookingRepository.countByBookerIdGroupByStatus(userId));
+        counts.addAll(owner
+                ? archivedBookingRepository.countByOwnerIdGroupByStatus(userId)
+                : archivedBookingRepository.countByBookerIdGroupByStatus(userId));
+        List<BookingItemView> unfinished = owner
+                ? bookingRepository.findIntervalsByOwnerIdEndingAfter(userId, now)
+                : bookingRepository.findIntervalsByBookerIdEndingAfter(userId, now);
+
+        Summary summary = new Summary();
+        for (BookingStatusCount count : counts) {
+            summary.all += count.getTotal();
+            summary.count(count.getStatus(), count.getTotal());
+        }
+        for (BookingItemView booking : unfinished) {
+            summary.schedule(booking.getStart(), booking.getEnd());
+        }
+        return summary;
+    }
+
+    private Map<Long, Summary> summaries(BookingQuery.Role role) {
+        return role == BookingQuery.Role.OWNER ? byOwner : byBooker;
+    }
+
+    private static class Summary {
+        private final PriorityQueue<LocalDateTime> starts = new PriorityQueue<>();
+        private final PriorityQueue<LocalDateTime> ends = new PriorityQueue<>();
+        private long all;
+        private long waiting;
+        private long rejected;
+        private boolean loaded;
+        private int pending;
+        private long changes;
+
+        private synchronized void begin() {
+            pending++;
+        }
+
+        private synchronized void complete(Consumer<Summary> change, boolean committed) {
+            if (pending > 0) {
+                pending--;
+            }
+            changes++;
+            if (committed && loaded) {
+                change.accept(this);
+            }
+        }
+
+        private void add(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+            all++;
+            count(status, 1);
+            schedule(start, end);
+        }
+
+        private void move(BookingStatus from, BookingStatus to) {
+            count(from, -1);
+            count(to, 1);
+        }
+
+        private void count(BookingStatus status, long delta) {
+            if (status == WAITING) {
+                waiting += delta;
+            } else if (status == REJECTED) {
+                rejected += delta;
+            }
+        }
+
+        private void schedule(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime now = LocalDateTime.now();
+            if (end.isAfter(now)) {
+                ends.add(end);
+                if (start.isAfter(now)) {
+                    starts.add(start);
+                }
+            }
+        }
+
+        private void copy(Summary other) {
+            starts.addAll(other.starts);
+            ends.addAll(other.ends);
+            all = other.all;
+            waiting = other.waiting;
+            rejected = other.rejected;
+            loaded = true;
+        }
+
+        private BookingSummaryDto toSummaryDto(LocalDateTime now) {
+            while (!starts.isEmpty() && !starts.peek().isAfter(now)) {
+                starts.poll();
+            }
+            while (!ends.isEmpty() && !ends.peek().isAfter(now)) {
+                ends.poll();
+            }
+            return BookingSummaryDto.builder()
+                    .all(all)
+                    .current(ends.size() - starts.size())
+                    .past(all - ends.size())
+                    .future(starts.size())
+                    .waiting(waiting)
+                    .rejected(rejected)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.sweeper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingSummaryCounters;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.CANCELED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+/**
+ * Cancels WAITING bookings whose start has passed, since they can no longer be approved.
+ * Works through them by id in small batches, each in its own short transaction.
+ */
+@Slf4j
+@Component
+public class StaleBookingSweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingSummaryCounters summaryCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expired;
+    private final Timer runs;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public StaleBookingSweeper(BookingRepository bookingRepository,
+                               BookingSummaryCounters summaryCounters,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.booking.sweeper.batch-size:500}") int batchSize,
+                               MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.summaryCounters = summaryCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("shareit.booking.sweeper.expired")
+                .description("WAITING bookings moved to CANCELED after their start passed")
+                .register(meterRegistry);
+        this.runs = Timer.builder("shareit.booking.sweeper.runs")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.sweeper.lag", lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest stale WAITING booking seen by the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.sweeper.interval:PT60S}",
+            initialDelayString = "${shareit.booking.sweeper.interval:PT60S}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    public int sweep() {
+        return runs.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            lagSeconds.set(bookingRepository.findOldestStartByStatusBefore(WAITING, now)
+                    .map(oldest -> Duration.between(oldest, now).toSeconds())
+                    .orElse(0L));
+
+            int total = 0;
+            long after = 0;
+            while (true) {
+                List<Long> ids = bookingRepository.findIdsByStatusAndStartBefore(WAITING, now, after,
+                        Pageable.ofSize(batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer updated = transactionTemplate.execute(status -> cancel(ids));
+                total += updated == null ? 0 : updated;
+                expired.increment(updated == null ? 0 : updated);
+                after = ids.get(ids.size() - 1);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Canceled " + total + " stale WAITING bookings.");
+            }
+            return total;
+        });
+    }
+
+    private int cancel(List<Long> ids) {
+        int updated = bookingRepository.updateStatusByIdIn(ids, CANCELED, WAITING);
+        bookingRepository.findViewsByIdInAndStatus(ids, CANCELED).forEach(booking ->
+                summaryCounters.statusChanged(booking.getBookerId(), booking.getOwnerId(), WAITING, CANCELED));
+        return updated;
+    }
+}
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.error;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Objects;
 
 @RestControllerAdvice
@@ -28,6 +31,14 @@ public class ErrorHandler {
         return new ErrorResponse("Email already exists!", e.getMessage());
     }
 
+    @ExceptionHandler({ConcurrentUpdateException.class, ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentUpdateException(final RuntimeException e, HttpServletResponse response) {
+        log.error("Concurrent Update Exception");
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return new ErrorResponse("Concurrent update, retry the request!", e.getMessage());
+    }
+
     @ExceptionHandler({InvalidBookingException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleInvalidBookingException(final InvalidBookingException e) {
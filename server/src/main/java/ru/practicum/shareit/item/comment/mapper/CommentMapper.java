@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.comment.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -32,6 +33,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto toCommentDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static List<CommentDto> getCommentDtoList(List<Comment> comments) {
         return comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
     }
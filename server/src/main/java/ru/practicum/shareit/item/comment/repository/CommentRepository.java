@@ -1,16 +1,29 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c " +
+            "join c.author a " +
+            "where c.item.id = ?1 and c.id < ?2 " +
+            "order by c.id desc")
+    List<CommentView> findViewsByItemIdBefore(Long itemId, Long before, Pageable page);
 
-    @Query(value = "SELECT c FROM Comment c " +
-            "WHERE c.item.id IN (:itemId)")
-    Set<Comment> findCommentsByItemId(Set<Long> itemId);
+    @Query(value = "select c.item_id as \"itemId\", c.id as \"id\", c.text as \"text\", " +
+            "a.name as \"authorName\", c.created as \"created\" " +
+            "from (select n.*, row_number() over (partition by n.item_id order by n.id desc) as recency " +
+            "from comments n where n.item_id in (:itemIds)) c " +
+            "join users a on a.id = c.author_id " +
+            "where c.recency <= :limit " +
+            "order by c.id desc",
+            nativeQuery = true)
+    List<CommentView> findNewestViewsByItemIdIn(Collection<Long> itemIds, long limit);
 }
@@ -2,13 +2,16 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -49,11 +52,39 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam(value = "text") String text,
                                 @RequestParam(defaultValue = "0") @Min(0) int from,
-                                @RequestParam(defaultValue = "20") @Min(1) int size) {
+                                @RequestParam(defaultValue = "20") @Min(1) int size,
+                                @RequestParam(required = false) Long after) {
         log.info("Found item for keyword: " + text);
+        if (after != null) {
+            return itemService.searchAfter(text, after, size);
+        }
         return itemService.search(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam(value = "prefix") String prefix,
+                                @RequestParam(defaultValue = "10") @Min(1) int size) {
+        log.info("Suggested item names for prefix: " + prefix);
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable Long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        log.info("Received availability of item with id: " + itemId);
+        return itemService.getAvailability(itemId, from, to, includeWaiting);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable Long itemId,
+                                        @RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "20") @Min(1) int size) {
+        log.info("Received comments of item with id: " + itemId);
+        return itemService.getComments(itemId, after, size);
+    }
+
     @PostMapping(path = "/{itemId}/comment")
     public CommentDto saveComment(@PathVariable Long itemId,
                                   @RequestHeader(value = "X-Sharer-User-Id") Long userId,
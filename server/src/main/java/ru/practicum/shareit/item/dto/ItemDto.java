@@ -25,5 +25,6 @@ public class ItemDto {
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
     private Long requestId;
 }
\ No newline at end of file
@@ -13,4 +13,5 @@ public class ItemDtoShort {
     private String description;
     private Boolean available;
     private Long requestId;
+    private Long ownerId;
 }
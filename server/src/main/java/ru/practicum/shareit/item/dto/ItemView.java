@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getCommentCount();
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final ItemDtoShort previous;
+    private final ItemDtoShort current;
+}
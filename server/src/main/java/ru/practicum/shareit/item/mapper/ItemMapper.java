@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.ArrayList;
@@ -20,6 +21,19 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .comments(new ArrayList<>())
+                .commentCount(item.getCommentCount())
+                .build();
+    }
+
+    public static ItemDto toItemDto(ItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .comments(new ArrayList<>())
+                .commentCount(item.getCommentCount())
                 .build();
     }
 
@@ -32,13 +46,26 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemDtoShort item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .comments(new ArrayList<>())
+                .commentCount(0L)
+                .build();
+    }
+
     public static ItemDtoShort toItemDtoShort(Item item) {
         return ItemDtoShort.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .requestId(item.getRequest().getId())
+                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
+                .ownerId(item.getOwner() != null ? item.getOwner().getId() : null)
                 .build();
     }
 
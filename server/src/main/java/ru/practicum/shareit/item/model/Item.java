@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -14,7 +15,10 @@ import javax.validation.constraints.NotNull;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_owner", columnList = "owner_id, id"),
+        @Index(name = "idx_items_request", columnList = "request_id, id")
+})
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,4 +44,13 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    @JsonIgnore
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.dto.RequestItemCount;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,12 +20,83 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "from Item as it " +
             "where it.available = true " +
             "and (lower(it.description) like lower(concat('%', ?1, '%')) " +
-            "or lower(it.name) like lower(concat('%', ?1, '%')))")
-    Page<Item> search(String text, Pageable page);
+            "or lower(it.name) like lower(concat('%', ?1, '%'))) " +
+            "order by it.id")
+    Slice<Item> search(String text, Pageable page);
 
-    Page<Item> findAllByOwnerIdOrderById(Long userId, Pageable page);
+    @Query("select it " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.id > ?2 " +
+            "and (lower(it.description) like lower(concat('%', ?1, '%')) " +
+            "or lower(it.name) like lower(concat('%', ?1, '%'))) " +
+            "order by it.id")
+    Slice<Item> searchAfter(String text, Long after, Pageable page);
+
+    @Query(value = "select * from items it " +
+            "where it.available = true " +
+            "and it.search_vector @@ plainto_tsquery('simple', :text) " +
+            "order by ts_rank(it.search_vector, plainto_tsquery('simple', :text)) desc, it.id",
+            nativeQuery = true)
+    List<Item> searchFullText(String text, Pageable page);
+
+    @Query(value = "select it.* from items it, " +
+            "(select ts_rank(a.search_vector, plainto_tsquery('simple', :text)) as rank " +
+            "from items a where a.id = :after) c " +
+            "where it.available = true " +
+            "and it.search_vector @@ plainto_tsquery('simple', :text) " +
+            "and (ts_rank(it.search_vector, plainto_tsquery('simple', :text)) < c.rank " +
+            "or ts_rank(it.search_vector, plainto_tsquery('simple', :text)) = c.rank and it.id > :after) " +
+            "order by ts_rank(it.search_vector, plainto_tsquery('simple', :text)) desc, it.id",
+            nativeQuery = true)
+    List<Item> searchFullTextAfter(String text, Long after, Pageable page);
+
+    @Query("select it.id as id, it.owner.id as ownerId, it.name as name, it.description as description " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.id > ?1 " +
+            "order by it.id")
+    List<ItemTextView> findAvailableTextViewsAfter(Long after, Pageable page);
+
+    @Query("select it.id as id, it.owner.id as ownerId, it.name as name, it.description as description " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.id in ?1")
+    List<ItemTextView> findAvailableTextViewsByIdIn(Collection<Long> ids);
+
+    @Query("select it.id as id, it.name as name, it.description as description, " +
+            "it.available as available, r.id as requestId, it.commentCount as commentCount " +
+            "from Item as it " +
+            "left join it.request as r " +
+            "where it.owner.id = ?1 " +
+            "order by it.id")
+    List<ItemView> findViewsByOwnerId(Long ownerId, Pageable page);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Item i set i.commentCount = i.commentCount + 1 where i.id = ?1")
+    int incrementCommentCount(Long itemId);
+
+    @Query("select it.id as id, it.owner.id as ownerId, it.name as name, it.description as description " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.request is null " +
+            "and it.id > ?1 " +
+            "order by it.id")
+    List<ItemTextView> findUnrequestedTextViewsAfter(Long after, Pageable page);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @Query(value = "select it.id as \"id\", it.name as \"name\", it.description as \"description\", " +
+            "it.available as \"available\", it.request_id as \"requestId\", " +
+            "it.comment_count as \"commentCount\" " +
+            "from (select n.*, row_number() over (partition by n.request_id order by n.id) as seq " +
+            "from items n where n.request_id in (:requestIds)) it " +
+            "where it.seq <= :limit " +
+            "order by it.id",
+            nativeQuery = true)
+    List<ItemView> findViewsByRequestIdIn(Collection<Long> requestIds, long limit);
 
-    List<Item> findAllByRequestIn(List<ItemRequest> requests);
+    @Query("select it.request.id as requestId, count(it) as total " +
+            "from Item it " +
+            "where it.request.id in :requestIds " +
+            "group by it.request.id")
+    List<RequestItemCount> countByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix tree over the lowercase names of available items, used for prefix suggestions.
+ * Each terminal node counts the items sharing that name so updates can add and remove names independently.
+ * Names are loaded in id batches at startup. An item saved while the trie loads takes its name from the event:
+ * its snapshot row is skipped, or its name is taken back out if the row was already loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemNameTrie {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Long, String> loaded = new HashMap<>();
+    private final Map<Long, String> pending = new HashMap<>();
+    private boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemTextView> batch = itemRepository.findAvailableTextViewsAfter(0L, Pageable.ofSize(LOAD_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::addUntouched);
+            batch = itemRepository.findAvailableTextViewsAfter(batch.get(batch.size() - 1).getId(),
+                    Pageable.ofSize(LOAD_BATCH_SIZE));
+        }
+        int names;
+        synchronized (this) {
+            pending.values().forEach(this::add);
+            names = loaded.size() + (int) pending.values().stream().filter(Objects::nonNull).count();
+            loaded.clear();
+            pending.clear();
+            ready = true;
+        }
+        log.info("Item name trie loaded with " + names + " names.");
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDtoShort previous = event.getPrevious();
+        ItemDtoShort current = event.getCurrent();
+        synchronized (this) {
+            if (!ready) {
+                remove(loaded.remove(current.getId()));
+                pending.put(current.getId(), Boolean.TRUE.equals(current.getAvailable()) ? current.getName() : null);
+                return;
+            }
+        }
+        if (previous != null && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getAvailable(), current.getAvailable())) {
+            return;
+        }
+        if (previous != null && Boolean.TRUE.equals(previous.getAvailable())) {
+            remove(previous.getName());
+        }
+        if (Boolean.TRUE.equals(current.getAvailable())) {
+            add(current.getName());
+        }
+    }
+
+    private synchronized void addUntouched(ItemTextView item) {
+        if (!pending.containsKey(item.getId())) {
+            add(item.getName());
+            loaded.put(item.getId(), item.getName());
+        }
+    }
+
+    public void add(String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = name.toLowerCase();
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null) {
+                    child = new Node(key.substring(position));
+                    node.children.put(key.charAt(position), child);
+                    node = child;
+                    break;
+                }
+                int common = commonPrefixLength(child.label, key, position);
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    node.children.put(middle.label.charAt(0), middle);
+                    child = middle;
+                }
+                node = child;
+                position += common;
+            }
+            if (node.count++ == 0) {
+                node.name = name;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = name.toLowerCase();
+        lock.writeLock().lock();
+        try {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null || !key.startsWith(child.label, position)) {
+                    return;
+                }
+                path.push(node);
+                node = child;
+                position += child.label.length();
+            }
+            if (node.count == 0) {
+                return;
+            }
+            if (--node.count == 0) {
+                node.name = null;
+                prune(node, path);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        String key = prefix.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.children.get(key.charAt(position));
+                if (child == null) {
+                    return result;
+                }
+                int common = commonPrefixLength(child.label, key, position);
+                if (position + common < key.length() && common < child.label.length()) {
+                    return result;
+                }
+                node = child;
+                position += common;
+            }
+            collect(node, result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void collect(Node node, List<String> result, int limit) {
+        if (result.size() >= limit) {
+            return;
+        }
+        if (node.count > 0) {
+            result.add(node.name);
+        }
+        for (Node child : node.children.values()) {
+            if (result.size() >= limit) {
+                return;
+            }
+            collect(child, result, limit);
+        }
+    }
+
+    private void prune(Node node, Deque<Node> path) {
+        Node parent = path.pop();
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            if (parent != root && parent.count == 0 && parent.children.size() == 1) {
+                mergeWithChild(parent);
+            }
+        } else if (node.children.size() == 1) {
+            mergeWithChild(node);
+        }
+    }
+
+    private void mergeWithChild(Node node) {
+        Node child = node.children.values().iterator().next();
+        node.label = node.label + child.label;
+        node.count = child.count;
+        node.name = child.name;
+        node.children.clear();
+        node.children.putAll(child.children);
+    }
+
+    private static int commonPrefixLength(String label, String key, int position) {
+        int length = 0;
+        while (length < label.length() && position + length < key.length()
+                && label.charAt(length) == key.charAt(position + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private String label;
+        private String name;
+        private int count;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of search pages keyed by the lowercase query and the page window, which names the backend
+ * that answered it so pages in rank order and in id order are never mixed.
+ * A saved item only evicts the queries whose terms all occur in its old or new name or description.
+ */
+@Component
+public class ItemSearchCache {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long generation;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        FunctionCounter.builder("shareit.search.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.search.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.search.cache.evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.search.cache.invalidations", invalidations, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.cache.size", this, ItemSearchCache::size)
+                .register(meterRegistry);
+    }
+
+    public List<ItemDto> get(String query, String window, Supplier<List<ItemDto>> loader) {
+        String key = query + '\u0000' + window;
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.items;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            loadGeneration = generation;
+        }
+        List<ItemDto> items = Collections.unmodifiableList(loader.get());
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(query.split("\\s+"), items, System.currentTimeMillis() + ttlMillis));
+                evictEldest();
+            }
+        }
+        return items;
+    }
+
+    @Order(2)
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDtoShort previous = event.getPrevious();
+        ItemDtoShort current = event.getCurrent();
+        if (previous != null && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getDescription(), current.getDescription())
+                && Objects.equals(previous.getAvailable(), current.getAvailable())) {
+            return;
+        }
+        List<String> texts = new ArrayList<>();
+        addSearchableTexts(texts, previous);
+        addSearchableTexts(texts, current);
+        if (texts.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                String[] terms = iterator.next().terms;
+                if (texts.stream().anyMatch(text -> containsAll(text, terms))) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static boolean containsAll(String text, String[] terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addSearchableTexts(List<String> texts, ItemDtoShort item) {
+        if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        if (item.getName() != null) {
+            texts.add(item.getName().toLowerCase());
+        }
+        if (item.getDescription() != null) {
+            texts.add(item.getDescription().toLowerCase());
+        }
+    }
+
+    private static class Entry {
+        private final String[] terms;
+        private final List<ItemDto> items;
+        private final long expiresAt;
+
+        private Entry(String[] terms, List<ItemDto> items, long expiresAt) {
+            this.terms = terms;
+            this.items = items;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
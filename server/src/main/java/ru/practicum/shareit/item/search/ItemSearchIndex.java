@@ -0,0 +1,292 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the name and description of available items. Every trigram of a field is
+ * mapped to a sorted array of the ids of the items containing it, and no item text is kept. A query of
+ * exactly three characters is answered from its posting list alone; a longer query intersects the posting
+ * lists of its trigrams and verifies the candidates against the database in id batches. Queries shorter than
+ * a trigram are left to the database. The index is loaded in id batches at startup; items saved while it
+ * loads are indexed from their events and skipped in the older snapshot. The index backs substring search
+ * only; with full-text search on, items are always searched and ranked by the database.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int VERIFY_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> touched = new HashSet<>();
+    private volatile boolean ready;
+
+    @Value("${shareit.search.index.enabled:true}")
+    private boolean enabled = true;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Item search index is disabled.");
+            return;
+        }
+        int items = 0;
+        List<ItemTextView> batch = itemRepository.findAvailableTextViewsAfter(0L, Pageable.ofSize(LOAD_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(this::indexUntouched);
+            items += batch.size();
+            batch = itemRepository.findAvailableTextViewsAfter(batch.get(batch.size() - 1).getId(),
+                    Pageable.ofSize(LOAD_BATCH_SIZE));
+        }
+        int grams;
+        synchronized (this) {
+            touched.clear();
+            ready = true;
+            grams = postings.size();
+        }
+        log.info("Item search index loaded with " + items + " items and " + grams + " trigrams.");
+    }
+
+    @Order(1)
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ItemDtoShort previous = event.getPrevious();
+        ItemDtoShort current = event.getCurrent();
+        synchronized (this) {
+            if (!ready) {
+                touched.add(current.getId());
+            }
+            Set<String> removed = previous == null || !Boolean.TRUE.equals(previous.getAvailable())
+                    ? new HashSet<>()
+                    : grams(previous.getName(), previous.getDescription());
+            Set<String> added = Boolean.TRUE.equals(current.getAvailable())
+                    ? grams(current.getName(), current.getDescription())
+                    : new HashSet<>();
+            removed.removeAll(added);
+            update(current.getId(), removed, added);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Whether the index can answer the query: it is loaded and the query holds at least one trigram.
+     */
+    public boolean canSearch(String text) {
+        return ready && normalize(text).length() >= GRAM_LENGTH;
+    }
+
+    private void add(Long itemId, String name, String description) {
+        update(itemId, Set.of(), grams(name, description));
+    }
+
+    private synchronized void indexUntouched(ItemTextView item) {
+        if (!touched.contains(item.getId())) {
+            add(item.getId(), item.getName(), item.getDescription());
+        }
+    }
+
+    private void update(Long itemId, Set<String> removed, Set<String> added) {
+        lock.writeLock().lock();
+        try {
+            for (String gram : removed) {
+                Posting posting = postings.get(gram);
+                if (posting != null && posting.remove(itemId) == 0) {
+                    postings.remove(gram);
+                }
+            }
+            for (String gram : added) {
+                postings.computeIfAbsent(gram, g -> new Posting()).add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int offset, int limit) {
+        return collect(normalize(text), 0L, offset, limit);
+    }
+
+    public List<Long> searchAfter(String text, Long afterId, int limit) {
+        return collect(normalize(text), afterId, 0, limit);
+    }
+
+    private List<Long> collect(String query, long afterId, int offset, int limit) {
+        List<Long> result = new ArrayList<>();
+        if (query.length() < GRAM_LENGTH) {
+            return result;
+        }
+        Set<String> grams = queryGrams(query);
+        boolean exact = query.length() == GRAM_LENGTH;
+        int skipped = 0;
+        long cursor = afterId;
+        while (result.size() < limit) {
+            long[] candidates = candidates(grams, cursor, exact ? offset - skipped + limit - result.size()
+                    : VERIFY_BATCH_SIZE);
+            if (candidates.length == 0) {
+                break;
+            }
+            cursor = candidates[candidates.length - 1];
+            for (Long itemId : exact ? toList(candidates) : verify(query, candidates)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else if (result.size() < limit) {
+                    result.add(itemId);
+                }
+            }
+        }
+        return result;
+    }
+
+    private long[] candidates(Set<String> grams, long afterId, int max) {
+        lock.readLock().lock();
+        try {
+            List<Posting> lists = new ArrayList<>();
+            for (String gram : grams) {
+                Posting posting = postings.get(gram);
+                if (posting == null) {
+                    return new long[0];
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(posting -> posting.size));
+            Posting driver = lists.get(0);
+            long[] candidates = new long[Math.min(max, driver.size)];
+            int found = 0;
+            for (int i = driver.upperBound(afterId); i < driver.size && found < candidates.length; i++) {
+                long itemId = driver.ids[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(itemId);
+                }
+                if (inAll) {
+                    candidates[found++] = itemId;
+                }
+            }
+            return Arrays.copyOf(candidates, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> verify(String query, long[] candidates) {
+        Set<Long> matching = new HashSet<>();
+        for (ItemTextView item : itemRepository.findAvailableTextViewsByIdIn(toList(candidates))) {
+            if (normalize(item.getName()).contains(query) || normalize(item.getDescription()).contains(query)) {
+                matching.add(item.getId());
+            }
+        }
+        List<Long> result = new ArrayList<>();
+        for (long itemId : candidates) {
+            if (matching.contains(itemId)) {
+                result.add(itemId);
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static Set<String> queryGrams(String query) {
+        Set<String> grams = new HashSet<>();
+        addGrams(grams, query);
+        return grams;
+    }
+
+    private static Set<String> grams(String name, String description) {
+        Set<String> grams = new HashSet<>();
+        addGrams(grams, normalize(name));
+        addGrams(grams, normalize(description));
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String field) {
+        for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+            grams.add(field.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sorted ids of the items holding one trigram. Ids mostly grow, so adding one is usually an append.
+     */
+    private static class Posting {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long itemId) {
+            if (size > 0 && ids[size - 1] >= itemId) {
+                int index = Arrays.binarySearch(ids, 0, size, itemId);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, itemId);
+                return;
+            }
+            insert(size, itemId);
+        }
+
+        private int remove(long itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+            return size;
+        }
+
+        private boolean contains(long itemId) {
+            return Arrays.binarySearch(ids, 0, size, itemId) >= 0;
+        }
+
+        private int upperBound(long itemId) {
+            int index = Arrays.binarySearch(ids, 0, size, itemId);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        private void insert(int index, long itemId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = itemId;
+            size++;
+        }
+    }
+}
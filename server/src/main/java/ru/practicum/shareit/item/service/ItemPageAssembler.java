@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.dto.CommentView;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingShortDto;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.item.comment.mapper.CommentMapper.toCommentDto;
+
+/**
+ * Builds an owner's item page from three projection queries (items, last/next bookings, newest comments)
+ * whatever the page size, without loading entities.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemPageAssembler {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    @Value("${shareit.item.comments.embedded:10}")
+    private int embeddedComments;
+
+    public List<ItemDto> assemble(Long ownerId, int from, int size) {
+        Map<Long, ItemDto> items = itemRepository.findViewsByOwnerId(ownerId, PageRequest.of(from / size, size))
+                .stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toMap(ItemDto::getId, item -> item, (a, b) -> a, LinkedHashMap::new));
+        if (items.isEmpty()) {
+            return new ArrayList<>(items.values());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (BookingItemView booking : bookingRepository.findLastAndNextByItemIdIn(items.keySet(), APPROVED, now)) {
+            ItemDto item = items.get(booking.getItemId());
+            if (booking.getEnd().isBefore(now)) {
+                item.setLastBooking(toBookingShortDto(booking));
+            } else {
+                item.setNextBooking(toBookingShortDto(booking));
+            }
+        }
+
+        for (CommentView comment : commentRepository.findNewestViewsByItemIdIn(items.keySet(), embeddedComments)) {
+            items.get(comment.getItemId()).getComments().add(toCommentDto(comment));
+        }
+        return new ArrayList<>(items.values());
+    }
+}
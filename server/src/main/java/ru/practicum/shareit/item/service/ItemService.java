@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -18,8 +20,25 @@ public interface ItemService {
 
     List<ItemDto> getItemListByUserId(Long userId, int from, int size);
 
+    /**
+     * Available items whose name or description contains the text. Pages come in id order from the substring
+     * backends, the in-memory index and the database alike, or by descending full-text rank and then id when
+     * full-text search is enabled.
+     */
     List<ItemDto> search(String text, int from, int size);
 
+    /**
+     * The page following the item with id {@code after} in the same order as {@link #search}. The cursor is the
+     * id of the last item of the previous page for every backend; a ranked page continues at that item's rank.
+     */
+    List<ItemDto> searchAfter(String text, Long after, int size);
+
+    List<String> suggest(String prefix, int size);
+
+    List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting);
+
     CommentDto saveComment(Long itemId, Long userId, CommentDto commentDto);
 
+    List<CommentDto> getComments(Long itemId, Long after, int size);
+
 }
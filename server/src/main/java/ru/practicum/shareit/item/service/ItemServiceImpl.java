@@ -2,27 +2,38 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.filter.ApprovedBookingFilter;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.error.UserHaveNotAccessException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -31,11 +42,13 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
 import static ru.practicum.shareit.item.comment.mapper.CommentMapper.*;
 import static ru.practicum.shareit.item.mapper.ItemMapper.*;
 
@@ -47,9 +60,24 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ApprovedBookingFilter approvedBookingFilter;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemPageAssembler itemPageAssembler;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Value("${shareit.search.full-text:false}")
+    private boolean fullTextSearch;
+
+    @Value("${shareit.item.comments.embedded:10}")
+    private int embeddedComments;
+
+    @Value("${shareit.item.availability.max-window:366d}")
+    private Duration maxAvailabilityWindow;
 
     @Override
     public List<ItemDto> findAllItems() {
@@ -62,13 +90,20 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         User savedUser = getUserById(userId);
         Item item = toItem(itemDto);
+        item.setId(null);
         item.setOwner(savedUser);
         if (itemDto.getRequestId() != null) {
             ItemRequest itemRequest = getItemRequestById(itemDto.getRequestId());
             item.setRequest(itemRequest);
         }
+        Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(null, toItemDtoShort(savedItem)));
+        if (savedItem.getRequest() != null) {
+            eventPublisher.publishEvent(new ItemRequestAnsweredEvent(savedItem.getRequest().getRequester().getId(),
+                    toItemDto(savedItem)));
+        }
         log.info("Item added.");
-        return toItemDto(itemRepository.save(item));
+        return toItemDto(savedItem);
     }
 
     @Override
@@ -78,7 +113,9 @@ public class ItemServiceImpl implements ItemService {
         if (!userId.equals(item.getOwner().getId())) {
             throw new UserHaveNotAccessException("Invalid user ID.");
         }
+        ItemDtoShort previous = toItemDtoShort(item);
         Item updatedItem = itemRepository.save(checksItems(item, itemDto));
+        eventPublisher.publishEvent(new ItemSavedEvent(previous, toItemDtoShort(updatedItem)));
         log.info("Item with id " + updatedItem.getId() + " updated");
         return ItemMapper.toItemDto(updatedItem);
     }
@@ -102,14 +139,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getItemListByUserId(Long userId, int from, int size) {
-        Pageable page = PageRequest.of(from / size, size);
-
-        List<Item> items = itemRepository.findAllByOwnerIdOrderById(userId, page).stream()
-                .sorted(Comparator.comparing(Item::getId))
-                .collect(Collectors.toList());
-
-        List<ItemDto> itemsDto = this.setBookings(items);
-        this.setComments(itemsDto);
+        List<ItemDto> itemsDto = itemPageAssembler.assemble(userId, from, size);
         log.info("Received a list of all the user's items.");
         return itemsDto;
     }
@@ -122,16 +152,68 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
         String query = text.toLowerCase();
-        Pageable page = PageRequest.of(from / size, size);
-        Page<Item> items = itemRepository.search(query, page);
-        if (items.isEmpty()) {
-            log.info("No items were found for the given letters " + query);
+        int offset = from / size * size;
+        boolean indexed = searchesIndex(query);
+        return itemSearchCache.get(query, searchBackend(indexed) + " from " + offset + " size " + size,
+                () -> toSearchResult(query, indexed
+                        ? findAllByIdInOrder(itemSearchIndex.search(query, offset, size))
+                        : searchInDatabase(query, PageRequest.of(from / size, size))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchAfter(String text, Long after, int size) {
+        if (text.isBlank()) {
+            log.info("Empty query parameter");
             return new ArrayList<>();
         }
-        log.info("Received a list of items in the given order of letters " + query);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        String query = text.toLowerCase();
+        boolean indexed = searchesIndex(query);
+        return itemSearchCache.get(query, searchBackend(indexed) + " after " + after + " size " + size,
+                () -> toSearchResult(query, indexed
+                        ? findAllByIdInOrder(itemSearchIndex.searchAfter(query, after, size))
+                        : searchInDatabaseAfter(query, after, Pageable.ofSize(size))));
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        if (prefix.isBlank()) {
+            log.info("Empty prefix parameter");
+            return new ArrayList<>();
+        }
+        log.info("Received item name suggestions for prefix " + prefix);
+        return itemNameTrie.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeSlotDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        if (!from.isBefore(to)) {
+            throw new InvalidBookingException("Availability window must end after it starts.");
+        }
+        if (Duration.between(from, to).compareTo(maxAvailabilityWindow) > 0) {
+            throw new InvalidBookingException("Availability window cannot be longer than "
+                    + maxAvailabilityWindow.toDays() + " days.");
+        }
+        getById(itemId);
+        List<BookingItemView> bookings = bookingRepository.findIntervalsByItemIdInRange(itemId,
+                includeWaiting ? List.of(APPROVED, WAITING) : List.of(APPROVED), from, to);
+
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingItemView booking : bookings) {
+            if (booking.getStart().isAfter(cursor)) {
+                slots.add(new FreeSlotDto(cursor, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(cursor)) {
+                cursor = booking.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new FreeSlotDto(cursor, to));
+        }
+        log.info("Received " + slots.size() + " free slots for item with id " + itemId);
+        return slots;
     }
 
     @Override
@@ -140,14 +222,84 @@ public class ItemServiceImpl implements ItemService {
         User user = getUserById(userId);
         Item item = getById(itemId);
 
-        if (bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(userId, itemId, APPROVED,
-                LocalDateTime.now()).isEmpty()) {
+        if (!hasCompletedBooking(userId, itemId)) {
             throw new InvalidBookingException("Unable to add a comment.");
         }
 
         Comment comment = toComment(commentDto, user, item);
+        comment.setId(null);
+        Comment savedComment = commentRepository.save(comment);
+        itemRepository.incrementCommentCount(itemId);
         log.info("Comment added.");
-        return toCommentDto(commentRepository.save(comment));
+        return toCommentDto(savedComment);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(Long itemId, Long after, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ModelNotFoundException("Invalid ID.");
+        }
+        List<CommentDto> comments = commentRepository.findViewsByItemIdBefore(itemId,
+                        after != null ? after : Long.MAX_VALUE, Pageable.ofSize(size))
+                .stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+        log.info("Received " + comments.size() + " comments for item with id " + itemId);
+        return comments;
+    }
+
+    private boolean hasCompletedBooking(Long userId, Long itemId) {
+        if (!approvedBookingFilter.mightHaveApproved(userId, itemId)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(userId, itemId, APPROVED, now)
+                || archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(userId, itemId,
+                APPROVED, now);
+    }
+
+    private List<ItemDto> toSearchResult(String query, List<Item> items) {
+        if (items.isEmpty()) {
+            log.info("No items were found for the given letters " + query);
+            return new ArrayList<>();
+        }
+        log.info("Received a list of items in the given order of letters " + query);
+        return getListItemDto(items);
+    }
+
+    private boolean searchesIndex(String query) {
+        return !fullTextSearch && itemSearchIndex.canSearch(query);
+    }
+
+    private String searchBackend(boolean indexed) {
+        if (fullTextSearch) {
+            return "ranked";
+        }
+        return indexed ? "index" : "substring";
+    }
+
+    private List<Item> searchInDatabase(String query, Pageable page) {
+        if (fullTextSearch) {
+            return itemRepository.searchFullText(query, page);
+        }
+        return itemRepository.search(query, page).getContent();
+    }
+
+    private List<Item> searchInDatabaseAfter(String query, Long after, Pageable page) {
+        if (fullTextSearch) {
+            return itemRepository.searchFullTextAfter(query, after, page);
+        }
+        return itemRepository.searchAfter(query, after, page).getContent();
+    }
+
+    private List<Item> findAllByIdInOrder(List<Long> itemIds) {
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     private User getUserById(Long userId) {
@@ -191,7 +343,11 @@ public class ItemServiceImpl implements ItemService {
         BookingShortDto lastBooking = getLastBooking(itemDto.getId());
         BookingShortDto nextBooking = getNextBooking(itemDto.getId());
 
-        List<CommentDto> comments = getCommentDtoList(commentRepository.findAllByItemId(itemDto.getId()));
+        List<CommentDto> comments = commentRepository.findViewsByItemIdBefore(itemDto.getId(), Long.MAX_VALUE,
+                        Pageable.ofSize(embeddedComments))
+                .stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
 
         itemDto.setLastBooking(lastBooking);
         itemDto.setNextBooking(nextBooking);
@@ -210,45 +366,4 @@ public class ItemServiceImpl implements ItemService {
                 .orElse(null);
     }
 
-    private void setComments(List<ItemDto> items) {
-        Map<Long, ItemDto> itemsDto = new HashMap<>();
-        items.forEach(item -> itemsDto.put(item.getId(), item));
-
-        Set<Comment> comments = new HashSet<>(commentRepository.findCommentsByItemId(itemsDto.keySet()));
-
-        if (!itemsDto.isEmpty()) {
-            comments.forEach(comment -> Optional.ofNullable(itemsDto.get(comment.getItem().getId()))
-                    .ifPresent(i -> i.getComments().add(toCommentDto(comment))));
-        }
-    }
-
-    private List<ItemDto> setBookings(List<Item> items) {
-        List<ItemDto> itemsDto = getListItemDto(items);
-
-        Set<Booking> bookings = new HashSet<>(bookingRepository.findAll());
-
-        if (!itemsDto.isEmpty()) {
-            itemsDto.forEach(item -> {
-
-                Optional<Booking> nextBooking = bookings.stream()
-                        .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                        .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                        .min(Comparator.comparing(Booking::getStart));
-
-                Optional<Booking> lastBooking = bookings.stream()
-                        .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                        .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                        .max(Comparator.comparing(Booking::getEnd));
-
-                item.setNextBooking(nextBooking
-                        .map(BookingMapper::toBookingShortDto)
-                        .orElse(null));
-                item.setLastBooking(lastBooking
-                        .map(BookingMapper::toBookingShortDto)
-                        .orElse(null));
-            });
-        }
-        return itemsDto;
-    }
-
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -32,10 +33,19 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @RequestParam(defaultValue = "0") @Min(0) int from,
-                                                   @RequestParam(defaultValue = "20") @Min(1) int size) {
+                                                   @RequestParam(defaultValue = "20") @Min(1) int size,
+                                                   @RequestParam(required = false) Long after) {
+        if (after != null) {
+            return itemRequestService.getAllItemRequestsAfter(userId, after, size);
+        }
         return itemRequestService.getAllItemRequests(userId, from, size);
     }
 
+    @GetMapping("/stream")
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestService.subscribe(userId);
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long requestId) {
         return itemRequestService.getItemRequestById(requestId, userId);
@@ -18,4 +18,6 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private List<ItemDto> items;
+    private Long itemCount;
+    private List<ItemDto> suggestedItems;
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemRequestView {
+    Long getId();
+
+    Long getRequesterId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+}
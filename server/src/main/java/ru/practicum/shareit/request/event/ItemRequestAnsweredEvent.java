@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestAnsweredEvent {
+    private final Long requesterId;
+    private final ItemDto item;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final Long requesterId;
+    private final ItemRequestDto request;
+}
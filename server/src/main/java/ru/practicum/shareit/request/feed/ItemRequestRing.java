@@ -0,0 +1,275 @@
+package ru.practicum.shareit.request.feed;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The head of the request feed, the first requests in feed order (created, id) with their attached items. The feed
+ * is read from its oldest request, so the head holds the pages clients open first. Every viewer reads the same
+ * head and skips its own entries. A page is served when the head fills it, or when the head holds the whole feed.
+ * Otherwise the caller reads the database. Items saved while the head is seeded only mark their request as
+ * touched; once the snapshot is in place, the touched requests are read again, so no item event is lost.
+ */
+@Slf4j
+@Component
+public class ItemRequestRing {
+    private static final Comparator<ItemRequestDto> FEED_ORDER = Comparator.comparing(ItemRequestDto::getCreated)
+            .thenComparing(ItemRequestDto::getId);
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final int itemsLimit;
+    private final Entry[] entries;
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private final Set<Long> touched = new HashSet<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int size;
+    private boolean complete = true;
+    private volatile boolean ready;
+
+    public ItemRequestRing(ItemRequestRepository itemRequestRepository,
+                           ItemRequestFeed itemRequestFeed,
+                           @Value("${shareit.request.feed.capacity:1000}") int capacity,
+                           @Value("${shareit.request.items.limit:10}") int itemsLimit,
+                           MeterRegistry meterRegistry) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRequestFeed = itemRequestFeed;
+        this.itemsLimit = itemsLimit;
+        this.entries = new Entry[capacity];
+        FunctionCounter.builder("shareit.request.feed.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.request.feed.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        List<ItemRequestView> first = itemRequestRepository.findFirstViews(Pageable.ofSize(entries.length));
+        Map<Long, Long> requesters = new HashMap<>();
+        first.forEach(request -> requesters.put(request.getId(), request.getRequesterId()));
+        List<ItemRequestDto> requests = itemRequestFeed.attachItems(first.stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList()));
+        synchronized (this) {
+            requests.forEach(request -> insert(new Entry(requesters.get(request.getId()), request)));
+            complete = complete && first.size() < entries.length;
+        }
+        refreshTouched();
+        log.info("Item request ring seeded with the first " + first.size() + " requests");
+    }
+
+    /**
+     * Reads again the requests whose items were saved while seeding, until no more were saved during the last
+     * read, and then marks the ring ready.
+     */
+    private void refreshTouched() {
+        while (true) {
+            List<ItemRequestDto> stale = new ArrayList<>();
+            synchronized (this) {
+                for (Long requestId : touched) {
+                    if (byId.containsKey(requestId)) {
+                        stale.add(ItemRequestDto.builder().id(requestId).build());
+                    }
+                }
+                touched.clear();
+                if (stale.isEmpty()) {
+                    ready = true;
+                    return;
+                }
+            }
+            itemRequestFeed.attachItems(stale);
+            synchronized (this) {
+                for (ItemRequestDto fresh : stale) {
+                    Entry entry = byId.get(fresh.getId());
+                    if (entry != null) {
+                        entry.request.setItems(fresh.getItems());
+                        entry.request.setItemCount(fresh.getItemCount());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The offset page of other users' requests, or empty when the ring may not hold all of it.
+     */
+    public synchronized Optional<List<ItemRequestDto>> page(Long userId, int from, int pageSize) {
+        if (!ready) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        return served(collect(userId, 0, from / pageSize * pageSize, pageSize), pageSize);
+    }
+
+    /**
+     * The page of other users' requests after the cursor request, or empty when the ring may not hold all of it.
+     */
+    public synchronized Optional<List<ItemRequestDto>> pageAfter(Long userId, Long after, int pageSize) {
+        Entry cursor = byId.get(after);
+        if (!ready || cursor == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        return served(collect(userId, indexOf(cursor) + 1, 0, pageSize), pageSize);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequestDto request = ItemRequestDto.builder()
+                .id(event.getRequest().getId())
+                .description(event.getRequest().getDescription())
+                .created(event.getRequest().getCreated())
+                .items(new ArrayList<>())
+                .itemCount(0L)
+                .build();
+        insert(new Entry(event.getRequesterId(), request));
+    }
+
+    @TransactionalEventListener
+    public synchronized void onItemSaved(ItemSavedEvent event) {
+        ItemDtoShort current = event.getCurrent();
+        if (current.getRequestId() == null) {
+            return;
+        }
+        if (!ready) {
+            touched.add(current.getRequestId());
+            return;
+        }
+        Entry entry = byId.get(current.getRequestId());
+        if (entry == null) {
+            return;
+        }
+        List<ItemDto> items = entry.request.getItems();
+        if (event.getPrevious() == null) {
+            entry.request.setItemCount(entry.request.getItemCount() + 1);
+            if (items.size() < itemsLimit) {
+                items.add(ItemMapper.toItemDto(current));
+            }
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId().equals(current.getId())) {
+                ItemDto item = ItemMapper.toItemDto(current);
+                item.setCommentCount(items.get(i).getCommentCount());
+                items.set(i, item);
+            }
+        }
+    }
+
+    private Optional<List<ItemRequestDto>> served(List<ItemRequestDto> page, int pageSize) {
+        if (page.size() < pageSize && !complete) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(page);
+    }
+
+    private List<ItemRequestDto> collect(Long userId, int start, int skip, int limit) {
+        List<ItemRequestDto> page = new ArrayList<>();
+        for (int i = start; i < size && page.size() < limit; i++) {
+            Entry entry = get(i);
+            if (entry.requesterId.equals(userId)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                page.add(copy(entry.request));
+            }
+        }
+        return page;
+    }
+
+    private void insert(Entry entry) {
+        if (byId.containsKey(entry.request.getId())) {
+            return;
+        }
+        if (size == entries.length) {
+            complete = false;
+            if (size == 0 || FEED_ORDER.compare(entry.request, get(size - 1).request) > 0) {
+                return;
+            }
+            byId.remove(get(size - 1).request.getId());
+            size--;
+            set(size, null);
+        }
+        int i = size;
+        while (i > 0 && FEED_ORDER.compare(get(i - 1).request, entry.request) > 0) {
+            set(i, get(i - 1));
+            i--;
+        }
+        set(i, entry);
+        size++;
+        byId.put(entry.request.getId(), entry);
+    }
+
+    private int indexOf(Entry entry) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = FEED_ORDER.compare(get(middle).request, entry.request);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalStateException("Request " + entry.request.getId() + " is not in the ring");
+    }
+
+    private Entry get(int index) {
+        return entries[index];
+    }
+
+    private void set(int index, Entry entry) {
+        entries[index] = entry;
+    }
+
+    private static ItemRequestDto copy(ItemRequestDto request) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(new ArrayList<>(request.getItems()))
+                .itemCount(request.getItemCount())
+                .build();
+    }
+
+    private static class Entry {
+        private final Long requesterId;
+        private final ItemRequestDto request;
+
+        private Entry(Long requesterId, ItemRequestDto request) {
+            this.requesterId = requesterId;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package ru.practicum.shareit.request.match;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from description keywords to the open requests containing them. A new available item is
+ * matched by looking up only its own keywords, and every matched request keeps the ids of its latest
+ * suggested items. A request is open, and keeps its suggestions, until an item is posted for it. Open requests
+ * and unrequested items are loaded in id batches at startup. Events committed while the index loads are
+ * buffered and applied in order once the load is done, so a request answered during the load is closed even
+ * if the snapshot read it as open.
+ */
+@Slf4j
+@Component
+public class RequestKeywordIndex {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_KEYWORD_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "from", "this", "that",
+            "any", "some", "need", "needs", "want", "have", "has", "can", "please", "для", "что", "или", "как",
+            "нужен", "нужна", "нужно", "нужны", "есть");
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final int suggestionsLimit;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final Map<Long, Deque<Long>> suggestions = new HashMap<>();
+    private final List<Runnable> pending = new ArrayList<>();
+    private boolean ready;
+
+    public RequestKeywordIndex(ItemRequestRepository itemRequestRepository,
+                               ItemRepository itemRepository,
+                               @Value("${shareit.request.suggestions.limit:10}") int suggestionsLimit,
+                               MeterRegistry meterRegistry) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.suggestionsLimit = suggestionsLimit;
+        Gauge.builder("shareit.request.match.open", this, RequestKeywordIndex::openRequests)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int open = 0;
+        List<ItemRequestView> requestBatch = itemRequestRepository.findOpenViewsAfter(0L,
+                Pageable.ofSize(LOAD_BATCH_SIZE));
+        while (!requestBatch.isEmpty()) {
+            requestBatch.forEach(request -> add(request.getId(), request.getRequesterId(), request.getDescription()));
+            open += requestBatch.size();
+            requestBatch = itemRequestRepository.findOpenViewsAfter(requestBatch.get(requestBatch.size() - 1).getId(),
+                    Pageable.ofSize(LOAD_BATCH_SIZE));
+        }
+        int items = 0;
+        List<ItemTextView> batch = itemRepository.findUnrequestedTextViewsAfter(0L, Pageable.ofSize(LOAD_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(item -> match(item.getId(), item.getOwnerId(), item.getName(), item.getDescription()));
+            items += batch.size();
+            batch = itemRepository.findUnrequestedTextViewsAfter(batch.get(batch.size() - 1).getId(),
+                    Pageable.ofSize(LOAD_BATCH_SIZE));
+        }
+        int buffered;
+        synchronized (this) {
+            ready = true;
+            pending.forEach(Runnable::run);
+            buffered = pending.size();
+            pending.clear();
+        }
+        log.info("Request keyword index loaded with " + open + " open requests, " + items + " items and "
+                + buffered + " buffered events.");
+    }
+
+    @TransactionalEventListener
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        if (buffered(() -> onItemRequestCreated(event))) {
+            return;
+        }
+        add(event.getRequest().getId(), event.getRequesterId(), event.getRequest().getDescription());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDtoShort item = event.getCurrent();
+        if (event.getPrevious() != null || buffered(() -> onItemSaved(event))) {
+            return;
+        }
+        if (item.getRequestId() != null) {
+            close(item.getRequestId());
+        } else if (Boolean.TRUE.equals(item.getAvailable())) {
+            match(item.getId(), item.getOwnerId(), item.getName(), item.getDescription());
+        }
+    }
+
+    /**
+     * Keeps the event for after the load while the index is loading.
+     */
+    private synchronized boolean buffered(Runnable event) {
+        if (ready) {
+            return false;
+        }
+        pending.add(event);
+        return true;
+    }
+
+    public synchronized void add(Long requestId, Long requesterId, String description) {
+        Set<String> keywords = keywords(description);
+        if (keywords.isEmpty() || requests.containsKey(requestId)) {
+            return;
+        }
+        requests.put(requestId, new OpenRequest(requesterId, keywords));
+        keywords.forEach(keyword -> postings.computeIfAbsent(keyword, k -> new HashSet<>()).add(requestId));
+    }
+
+    public synchronized void close(Long requestId) {
+        OpenRequest request = requests.remove(requestId);
+        suggestions.remove(requestId);
+        if (request == null) {
+            return;
+        }
+        for (String keyword : request.keywords) {
+            Set<Long> ids = postings.get(keyword);
+            if (ids != null && ids.remove(requestId) && ids.isEmpty()) {
+                postings.remove(keyword);
+            }
+        }
+    }
+
+    /**
+     * Records the item as a suggestion for every open request of another user sharing a keyword with it.
+     */
+    public synchronized void match(Long itemId, Long ownerId, String name, String description) {
+        Set<String> keywords = keywords(name);
+        keywords.addAll(keywords(description));
+        Set<Long> matched = new HashSet<>();
+        for (String keyword : keywords) {
+            matched.addAll(postings.getOrDefault(keyword, Set.of()));
+        }
+        for (Long requestId : matched) {
+            if (!requests.get(requestId).requesterId.equals(ownerId)) {
+                Deque<Long> items = suggestions.computeIfAbsent(requestId, id -> new ArrayDeque<>());
+                items.remove(itemId);
+                items.addFirst(itemId);
+                if (items.size() > suggestionsLimit) {
+                    items.removeLast();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids of the items suggested for the request, newest first.
+     */
+    public synchronized List<Long> suggestions(Long requestId) {
+        Deque<Long> items = suggestions.get(requestId);
+        return items == null ? List.of() : new ArrayList<>(items);
+    }
+
+    private synchronized int openRequests() {
+        return requests.size();
+    }
+
+    private static Set<String> keywords(String text) {
+        Set<String> keywords = new HashSet<>();
+        if (text == null) {
+            return keywords;
+        }
+        for (String token : SEPARATOR.split(text.toLowerCase())) {
+            if (token.length() >= MIN_KEYWORD_LENGTH && !STOP_WORDS.contains(token)) {
+                keywords.add(token);
+            }
+        }
+        return keywords;
+    }
+
+    private static class OpenRequest {
+        private final Long requesterId;
+        private final Set<String> keywords;
+
+        private OpenRequest(Long requesterId, Set<String> keywords) {
+            this.requesterId = requesterId;
+            this.keywords = keywords;
+        }
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +16,29 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     List<ItemRequest> findAllByRequesterIdOrderByCreatedAsc(Long userId);
 
     List<ItemRequest> findAllByRequesterIdNotOrderByCreatedAsc(Long userId, Pageable page);
+
+    @Query("select r.id as id, r.requester.id as requesterId, r.description as description, r.created as created " +
+            "from ItemRequest r " +
+            "where r.requester.id <> ?1 " +
+            "order by r.created, r.id")
+    List<ItemRequestView> findViewsByRequesterIdNot(Long userId, Pageable page);
+
+    @Query("select r.id as id, r.requester.id as requesterId, r.description as description, r.created as created " +
+            "from ItemRequest r " +
+            "where r.requester.id <> ?1 " +
+            "and (r.created > ?2 or (r.created = ?2 and r.id > ?3)) " +
+            "order by r.created, r.id")
+    List<ItemRequestView> findViewsByRequesterIdNotAfter(Long userId, LocalDateTime created, Long id, Pageable page);
+
+    @Query("select r.id as id, r.requester.id as requesterId, r.description as description, r.created as created " +
+            "from ItemRequest r " +
+            "order by r.created, r.id")
+    List<ItemRequestView> findFirstViews(Pageable page);
+
+    @Query("select r.id as id, r.requester.id as requesterId, r.description as description, r.created as created " +
+            "from ItemRequest r " +
+            "where r.id > ?1 " +
+            "and not exists (select it.id from Item it where it.request = r) " +
+            "order by r.id")
+    List<ItemRequestView> findOpenViewsAfter(Long after, Pageable page);
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
+import ru.practicum.shareit.request.dto.RequestItemCount;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Feed of other users' requests ordered by (created, id). Pages continue from the cursor request, so the cost
+ * of a page does not depend on how deep it is. Items are attached in one grouped pass: the first few items
+ * of each request from a capped projection query, plus the total per request from a count query.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemRequestFeed {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+
+    @Value("${shareit.request.items.limit:10}")
+    private int itemsLimit;
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> page(Long userId, int from, int size) {
+        return attachItems(toItemRequestDtoList(
+                itemRequestRepository.findViewsByRequesterIdNot(userId, PageRequest.of(from / size, size))));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> pageAfter(Long userId, ItemRequest cursor, int size) {
+        return attachItems(toItemRequestDtoList(itemRequestRepository.findViewsByRequesterIdNotAfter(userId,
+                cursor.getCreated(), cursor.getId(), Pageable.ofSize(size))));
+    }
+
+    public List<ItemRequestDto> attachItems(List<ItemRequestDto> requests) {
+        Map<Long, ItemRequestDto> byId = new LinkedHashMap<>();
+        for (ItemRequestDto request : requests) {
+            request.setItems(new ArrayList<>());
+            request.setItemCount(0L);
+            byId.put(request.getId(), request);
+        }
+        if (byId.isEmpty()) {
+            return requests;
+        }
+        for (ItemView item : itemRepository.findViewsByRequestIdIn(byId.keySet(), itemsLimit)) {
+            byId.get(item.getRequestId()).getItems().add(ItemMapper.toItemDto(item));
+        }
+        for (RequestItemCount count : itemRepository.countByRequestIdIn(byId.keySet())) {
+            byId.get(count.getRequestId()).setItemCount(count.getTotal());
+        }
+        return requests;
+    }
+
+    private static List<ItemRequestDto> toItemRequestDtoList(List<ItemRequestView> requests) {
+        return requests.stream()
+                .map(ItemRequestMapper::toItemRequestDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -12,4 +13,8 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllItemRequestByUserId(Long userId);
 
     List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size);
+
+    List<ItemRequestDto> getAllItemRequestsAfter(Long userId, Long after, int size);
+
+    SseEmitter subscribe(Long userId);
 }
@@ -2,22 +2,29 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.error.ModelNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.feed.ItemRequestRing;
+import ru.practicum.shareit.request.match.RequestKeywordIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestStream;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -30,6 +37,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestRing itemRequestRing;
+    private final ItemRequestStream itemRequestStream;
+    private final RequestKeywordIndex requestKeywordIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -38,8 +50,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = toItemRequest(itemRequestDto);
         itemRequest.setRequester(user);
         itemRequest.setCreated(LocalDateTime.now());
+        ItemRequestDto savedRequest = toItemRequestDto(itemRequestRepository.save(itemRequest));
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(userId, savedRequest));
         log.info("Request for item added.");
-        return toItemRequestDto(itemRequestRepository.save(itemRequest));
+        return savedRequest;
     }
 
     @Override
@@ -48,7 +62,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         getUserById(userId);
         ItemRequest itemRequest = getItemRequestById(requestId);
         ItemRequestDto itemRequestDto = toItemRequestDto(itemRequest);
-        setItemsToItemRequestDto(itemRequestDto);
+        itemRequestFeed.attachItems(List.of(itemRequestDto));
+        itemRequestDto.setSuggestedItems(getSuggestedItems(requestId));
         log.info("Item Request data received for user with id " + userId);
         return itemRequestDto;
     }
@@ -58,39 +73,47 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> getAllItemRequestByUserId(Long userId) {
         getUserById(userId);
         List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdOrderByCreatedAsc(userId);
-        List<ItemRequestDto> requests = getItemRequestDtoList(req);
-        setItems(requests, req);
+        List<ItemRequestDto> requests = itemRequestFeed.attachItems(getItemRequestDtoList(req));
         log.info("Received list of all user requests.");
         return requests;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size) {
-        Pageable page = PageRequest.of(from / size, size);
-        List<ItemRequest> req = itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAsc(userId, page);
-        List<ItemRequestDto> requests = getItemRequestDtoList(req);
-        setItems(requests, req);
+        List<ItemRequestDto> requests = itemRequestRing.page(userId, from, size)
+                .orElseGet(() -> itemRequestFeed.page(userId, from, size));
         log.info("Retrieved a list of all requests created by users.");
         return requests;
     }
 
-    private void setItems(List<ItemRequestDto> requests, List<ItemRequest> req) {
+    @Override
+    public List<ItemRequestDto> getAllItemRequestsAfter(Long userId, Long after, int size) {
+        List<ItemRequestDto> requests = itemRequestRing.pageAfter(userId, after, size)
+                .orElseGet(() -> itemRequestFeed.pageAfter(userId, getItemRequestById(after), size));
+        log.info("Retrieved a page of requests created by users after request with id " + after);
+        return requests;
+    }
 
-        List<Item> items = itemRepository.findAllByRequestIn(req);
-        for (ItemRequestDto itemReg : requests) {
-            List<Item> items1 = items.stream()
-                    .filter(i -> Objects.equals(i.getRequest().getId(), itemReg.getId()))
-                    .collect(Collectors.toList());
-            itemReg.setItems(ItemMapper.getListItemDto(items1));
-        }
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        getUserById(userId);
+        log.info("User with id " + userId + " subscribed to the request stream.");
+        return itemRequestStream.subscribe(userId);
     }
 
-    private void setItemsToItemRequestDto(ItemRequestDto itemRequestDto) {
-        itemRequestDto.setItems(itemRepository.findAllByRequestId(itemRequestDto.getId())
-                .stream()
+    private List<ItemDto> getSuggestedItems(Long requestId) {
+        List<Long> itemIds = requestKeywordIndex.suggestions(requestId);
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .filter(item -> item.getRequest() == null && Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
     }
 
     private User getUserById(Long userId) {
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.request.stream;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed request events to Server-Sent Events subscribers: new requests of other users, and items
+ * posted in answer to the subscriber's own requests. Each subscriber has a bounded buffer drained by a small
+ * shared pool; a subscriber whose buffer overflows is dropped, so a slow client never holds back the others
+ * or the writes that produce the events. A client that stops reading blocks the send itself, so a separate
+ * watchdog thread also drops a subscriber whose send has run past the write timeout and interrupts the pool
+ * thread stuck in it.
+ */
+@Slf4j
+@Component
+public class ItemRequestStream {
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+
+    public ItemRequestStream(@Value("${shareit.request.stream.buffer:64}") int bufferSize,
+                             @Value("${shareit.request.stream.timeout:30m}") Duration timeout,
+                             @Value("${shareit.request.stream.heartbeat:15s}") Duration heartbeat,
+                             @Value("${shareit.request.stream.threads:4}") int threads,
+                             @Value("${shareit.request.stream.write-timeout:10s}") Duration writeTimeout,
+                             MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.executor = Executors.newFixedThreadPool(threads, daemon("request-stream"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemon("request-stream-watchdog"));
+        watchdog.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+        watchdog.scheduleAtFixedRate(this::expireStalledSends, writeTimeout.toMillis(), writeTimeout.toMillis(),
+                TimeUnit.MILLISECONDS);
+        Gauge.builder("shareit.request.stream.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("shareit.request.stream.dropped", dropped, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.userId.equals(event.getRequesterId())) {
+                offer(subscriber, SseEmitter.event()
+                        .name("request")
+                        .id("request-" + event.getRequest().getId())
+                        .data(event.getRequest()));
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemRequestAnswered(ItemRequestAnsweredEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.userId.equals(event.getRequesterId())) {
+                offer(subscriber, SseEmitter.event()
+                        .name("item")
+                        .id("item-" + event.getItem().getId())
+                        .data(event.getItem()));
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void expireStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (subscriber.drainer != null && subscriber.sendingSince != 0
+                        && now - subscriber.sendingSince > writeTimeoutNanos) {
+                    drop(subscriber);
+                    subscriber.drainer.interrupt();
+                }
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.buffer.offer(event)) {
+            drop(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.drainer = Thread.currentThread();
+        }
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (subscribers.contains(subscriber) && (event = subscriber.buffer.poll()) != null) {
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(event);
+                subscriber.sendingSince = 0;
+            }
+            if (subscriber.closing && !subscriber.closed) {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+        } finally {
+            synchronized (subscriber) {
+                subscriber.drainer = null;
+                subscriber.sendingSince = 0;
+            }
+            Thread.interrupted();
+            subscriber.draining.set(false);
+        }
+        if (subscriber.closing ? !subscriber.closed
+                : subscribers.contains(subscriber) && !subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.incrementAndGet();
+            subscriber.buffer.clear();
+            subscriber.closing = true;
+            schedule(subscriber);
+            log.warn("Dropped slow request stream subscriber with user id " + subscriber.userId);
+        }
+    }
+
+    private static class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closing;
+        private volatile boolean closed;
+        private volatile long sendingSince;
+        private Thread drainer;
+
+        private Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
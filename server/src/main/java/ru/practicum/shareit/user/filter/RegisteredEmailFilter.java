@@ -0,0 +1,81 @@
+package ru.practicum.shareit.user.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserEmailView;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of the lowercase emails ever registered, seeded in id batches at startup and extended on every
+ * user save. A negative answer proves the email is free, so the uniqueness check skips the query; emails of
+ * deleted users stay in the filter and only cost that query. Until the seed finishes every email is reported
+ * as possibly registered.
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter {
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final BloomFilter filter;
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile boolean ready;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 @Value("${shareit.user.email-filter.expected-emails:5000000}") long emails,
+                                 @Value("${shareit.user.email-filter.fpp:0.01}") double fpp,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.filter = new BloomFilter(emails, fpp);
+        FunctionCounter.builder("shareit.user.email-filter.skipped", skipped, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long seeded = 0;
+        List<UserEmailView> batch = userRepository.findEmailsAfter(0L, Pageable.ofSize(SEED_BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            batch.forEach(user -> add(user.getEmail()));
+            seeded += batch.size();
+            batch = userRepository.findEmailsAfter(batch.get(batch.size() - 1).getId(),
+                    Pageable.ofSize(SEED_BATCH_SIZE));
+        }
+        ready = true;
+        log.info("Registered email filter seeded with " + seeded + " emails");
+    }
+
+    public void add(String email) {
+        if (email != null) {
+            filter.put(key(email));
+        }
+    }
+
+    public boolean mightBeRegistered(String email) {
+        if (!ready || filter.mightContain(key(email))) {
+            return true;
+        }
+        skipped.incrementAndGet();
+        return false;
+    }
+
+    static long key(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
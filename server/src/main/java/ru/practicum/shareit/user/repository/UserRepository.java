@@ -1,9 +1,23 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserEmailView;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(?1)")
+    boolean existsByEmail(String email);
+
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(?1) and u.id <> ?2")
+    boolean existsByEmailAndIdNot(String email, Long userId);
+
+    @Query("select u.id as id, u.email as email from User u where u.id > ?1 order by u.id")
+    List<UserEmailView> findEmailsAfter(Long userId, Pageable page);
 }
@@ -9,6 +9,7 @@ import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.error.EmailAlreadyExistException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.filter.RegisteredEmailFilter;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -26,6 +27,7 @@ import static ru.practicum.shareit.user.mapper.UserMapper.*;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
     @Override
     @Transactional(readOnly = true)
@@ -39,8 +41,13 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(UserDto userDto) {
         User newUser = toUser(userDto);
         checksUser(newUser, userDto);
+        if (newUser.getEmail() != null) {
+            checkEmailExistException(newUser.getEmail(), null);
+        }
+        User savedUser = userRepository.save(newUser);
+        registeredEmailFilter.add(savedUser.getEmail());
         log.info("User saved.");
-        return toUserDto(userRepository.save(newUser));
+        return toUserDto(savedUser);
     }
 
     @Override
@@ -48,10 +55,12 @@ public class UserServiceImpl implements UserService {
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = getById(id);
         if (userDto.getEmail() != null && !userDto.getEmail().equals(user.getEmail())) {
-            checkEmailExistException(userDto.getEmail());
+            checkEmailExistException(userDto.getEmail(), id);
         }
+        User updatedUser = userRepository.save(checksUser(user, userDto));
+        registeredEmailFilter.add(updatedUser.getEmail());
         log.info("User details updated.");
-        return toUserDto(userRepository.save(checksUser(user, userDto)));
+        return toUserDto(updatedUser);
     }
 
     @Override
@@ -80,8 +89,13 @@ public class UserServiceImpl implements UserService {
         return user;
     }
 
-    private void checkEmailExistException(String email) {
-        if (userRepository.findAll().stream().anyMatch(a -> a.getEmail().equals(email)))
+    private void checkEmailExistException(String email, Long userId) {
+        if (!registeredEmailFilter.mightBeRegistered(email)) {
+            return;
+        }
+        boolean registered = userId == null ? userRepository.existsByEmail(email)
+                : userRepository.existsByEmailAndIdNot(email, userId);
+        if (registered)
             throw new EmailAlreadyExistException("Email is already registered!");
     }
 
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.error.ConcurrentUpdateException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by hashing keys onto stripes, so work on one key is serialized
+ * without a global lock and without keeping a lock object per key.
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+    private final Duration timeout;
+
+    public StripedLock(int stripes, Duration timeout) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Locks the stripe of the key and keeps it until the current transaction completes.
+     */
+    public void lockUntilCompletion(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No active transaction to hold the lock for " + key);
+        }
+        lockStripe(stripe(key), key);
+    }
+
+    /**
+     * Locks the stripes of all keys in stripe order, so callers locking overlapping key sets cannot deadlock.
+     */
+    public void lockAllUntilCompletion(Collection<?> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("No active transaction to hold the lock for " + keys);
+        }
+        SortedSet<Integer> indexes = new TreeSet<>();
+        keys.forEach(key -> indexes.add(index(key)));
+        for (int index : indexes) {
+            lockStripe(stripes[index], keys);
+        }
+    }
+
+    private void lockStripe(ReentrantLock lock, Object key) {
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ConcurrentUpdateException("Timed out waiting for a concurrent update of " + key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for a concurrent update of " + key);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock stripe(Object key) {
+        return stripes[index(key)];
+    }
+
+    private int index(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
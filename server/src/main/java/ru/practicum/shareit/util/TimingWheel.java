@@ -0,0 +1,121 @@
+package ru.practicum.shareit.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with {@code 2^bits} slots per level. A task lands on the lowest level whose
+ * span still separates its tick from the current one and cascades one level down each time the wheel
+ * reaches its slot, so scheduling and firing cost O(1) per level regardless of how many tasks are pending.
+ * Tasks beyond the top level wait in an overflow list until the top level wraps. Not thread-safe.
+ */
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<Entry<T>>[][] slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int bits, int levels, long startMillis) {
+        if (tickMillis <= 0 || bits <= 0 || levels <= 0 || (long) bits * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.slots = new List[levels][1 << bits];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules the task to fire on the first tick at or after the deadline.
+     * Returns {@code false} without scheduling when that tick has already passed.
+     */
+    public boolean schedule(long deadlineMillis, T task) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (tick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(tick, task));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and hands every task that came due to the consumer.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            if (lowBits(currentTick, slots.length) == 0) {
+                cascade(overflow);
+            }
+            for (int level = slots.length - 1; level > 0; level--) {
+                if (lowBits(currentTick, level) == 0) {
+                    cascade(takeSlot(level, digit(currentTick, level)));
+                }
+            }
+            List<Entry<T>> due = takeSlot(0, digit(currentTick, 0));
+            size -= due.size();
+            for (Entry<T> entry : due) {
+                expired.accept(entry.task);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < slots.length; level++) {
+            if (entry.tick >>> (bits * (level + 1)) == currentTick >>> (bits * (level + 1))) {
+                int slot = digit(entry.tick, level);
+                if (slots[level][slot] == null) {
+                    slots[level][slot] = new ArrayList<>();
+                }
+                slots[level][slot].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade(List<Entry<T>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> moved = new ArrayList<>(entries);
+        entries.clear();
+        moved.forEach(this::place);
+    }
+
+    private List<Entry<T>> takeSlot(int level, int slot) {
+        List<Entry<T>> entries = slots[level][slot];
+        slots[level][slot] = null;
+        return entries == null ? List.of() : entries;
+    }
+
+    private int digit(long tick, int level) {
+        return (int) (tick >>> (bits * level)) & mask;
+    }
+
+    private long lowBits(long tick, int levels) {
+        return tick & ((1L << (bits * levels)) - 1);
+    }
+
+    private static class Entry<T> {
+        private final long tick;
+        private final T task;
+
+        private Entry(long tick, T task) {
+            this.tick = tick;
+            this.task = task;
+        }
+    }
+}
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
     id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name     VARCHAR(300),
@@ -25,7 +19,9 @@ CREATE TABLE IF NOT EXISTS items (
     description  VARCHAR(1000),
     available    BOOLEAN NOT NULL,
     owner_id     BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
-    request_id  BIGINT REFERENCES requests (id)
+    request_id  BIGINT REFERENCES requests (id),
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    version      BIGINT
     );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -36,11 +32,76 @@ CREATE TABLE IF NOT EXISTS comments (
     created   TIMESTAMP 
     );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id         BIGINT DEFAULT nextval('bookings_seq') NOT NULL,
+    start_time TIMESTAMP,
+    end_time   TIMESTAMP NOT NULL,
+    item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL ,
+    booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL ,
+    owner_id   BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL ,
+    status     VARCHAR(300),
+    version    BIGINT,
+    PRIMARY KEY (id, end_time)
+    ) PARTITION BY RANGE (end_time);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id         BIGINT NOT NULL,
     start_time TIMESTAMP,
-    end_time   TIMESTAMP,
+    end_time   TIMESTAMP NOT NULL,
     item_id    BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL ,
     booker_id  BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL ,
-    status     VARCHAR(300)
-    );
\ No newline at end of file
+    owner_id   BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL ,
+    status     VARCHAR(300),
+    version    BIGINT,
+    PRIMARY KEY (id, end_time)
+    ) PARTITION BY RANGE (end_time);
+
+CREATE TABLE IF NOT EXISTS bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start_end ON bookings (item_id, status, start_time, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start_id ON bookings (booker_id, status, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings (owner_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start_id ON bookings (owner_id, status, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_waiting_start_id ON bookings (owner_id, start_time, id)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start_id ON bookings_archive (booker_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_owner_start_id ON bookings_archive (owner_id, start_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_time);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_lower ON users (lower(email));
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_id ON bookings (status, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_item_status_end ON bookings_archive (booker_id, item_id, status, end_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_status_id ON bookings_archive (status, id);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) STORED;
+
+DROP INDEX IF EXISTS idx_items_search;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.filter.ApprovedBookingFilter;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+public class ApprovedBookingFilterTest {
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long key = 0; key < 10_000; key++) {
+            filter.put(key * 31);
+        }
+        int falsePositives = 0;
+        for (long key = 0; key < 10_000; key++) {
+            assertThat(filter.mightContain(key * 31), equalTo(true));
+            if (filter.mightContain(key * 31 + 1)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives, lessThan(300));
+        assertThat(filter.hashCount(), equalTo(7));
+    }
+
+    @Test
+    void filterPassesEverythingUntilSeededThenOnlyAddedPairs() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        ArchivedBookingRepository archivedBookingRepository = mock(ArchivedBookingRepository.class);
+        ApprovedBookingFilter filter = new ApprovedBookingFilter(bookingRepository, archivedBookingRepository,
+                1000, 0.01, new SimpleMeterRegistry());
+
+        assertThat(filter.mightHaveApproved(2L, 1L), equalTo(true));
+
+        filter.seed();
+        filter.add(2L, 1L);
+
+        assertThat(filter.mightHaveApproved(2L, 1L), equalTo(true));
+        assertThat(filter.mightHaveApproved(1L, 2L), equalTo(false));
+        assertThat(filter.mightHaveApproved(3L, 1L), equalTo(false));
+    }
+
+    @Test
+    void seedReadsApprovedBookingsInIdBatchesFromBothTables() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        ArchivedBookingRepository archivedBookingRepository = mock(ArchivedBookingRepository.class);
+        List<BookingItemView> live = List.of(pair(4L, 2L, 1L));
+        List<BookingItemView> archived = List.of(pair(1L, 3L, 1L));
+        when(bookingRepository.findBookerItemPairsByStatusAfter(eq(APPROVED), eq(0L), any())).thenReturn(live);
+        when(archivedBookingRepository.findBookerItemPairsByStatusAfter(eq(APPROVED), eq(0L), any()))
+                .thenReturn(archived);
+        ApprovedBookingFilter filter = new ApprovedBookingFilter(bookingRepository, archivedBookingRepository,
+                1000, 0.01, new SimpleMeterRegistry());
+
+        filter.seed();
+
+        assertThat(filter.mightHaveApproved(2L, 1L), equalTo(true));
+        assertThat(filter.mightHaveApproved(3L, 1L), equalTo(true));
+        assertThat(filter.mightHaveApproved(5L, 1L), equalTo(false));
+        verify(bookingRepository).findBookerItemPairsByStatusAfter(eq(APPROVED), eq(4L), any());
+        verify(archivedBookingRepository).findBookerItemPairsByStatusAfter(eq(APPROVED), eq(1L), any());
+    }
+
+    private static BookingItemView pair(Long id, Long bookerId, Long itemId) {
+        BookingItemView view = mock(BookingItemView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getBookerId()).thenReturn(bookerId);
+        when(view.getItemId()).thenReturn(itemId);
+        return view;
+    }
+}
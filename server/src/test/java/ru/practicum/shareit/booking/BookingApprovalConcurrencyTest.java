@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.ConcurrentUpdateException;
+import ru.practicum.shareit.error.InvalidBookingException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingApprovalConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final List<Long> bookingIds = new ArrayList<>();
+    private Long ownerId;
+
+    @BeforeEach
+    void init() {
+        ownerId = userService.createUser(UserDto.builder().name("Oleg").email("oleg@email.com").build()).getId();
+        Long bookerId = userService.createUser(UserDto.builder().name("Roman").email("roman@email.com").build()).getId();
+        Long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Drill")
+                .description("Cordless drill")
+                .available(true)
+                .build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < THREADS; i++) {
+            BookingDto booking = bookingService.createBooking(bookerId, BookingRequestDto.builder()
+                    .itemId(itemId)
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i).plusDays(1))
+                    .build());
+            bookingIds.add(booking.getId());
+        }
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsApproveOne() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        hammer(i -> bookingIds.get(i), approved, rejected);
+
+        assertThat(approved.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(THREADS - 1));
+        List<Booking> bookings = bookingRepository.findAll();
+        assertThat(bookings.stream().filter(b -> b.getStatus() == APPROVED).count(), equalTo(1L));
+        assertThat(bookings.stream().filter(b -> b.getStatus() == WAITING).count(), equalTo((long) THREADS - 1));
+    }
+
+    @Test
+    void concurrentApprovalsOfSameBookingApplyOnce() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        hammer(i -> bookingIds.get(0), approved, rejected);
+
+        assertThat(approved.get(), equalTo(1));
+        assertThat(rejected.get(), equalTo(THREADS - 1));
+        Booking booking = bookingRepository.findById(bookingIds.get(0)).orElseThrow();
+        assertThat(booking.getStatus(), equalTo(APPROVED));
+        assertThat(booking.getVersion(), equalTo(1L));
+    }
+
+    private void hammer(java.util.function.IntFunction<Long> bookingId, AtomicInteger approved,
+                        AtomicInteger rejected) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        bookingService.updateBooking(bookingId.apply(thread), ownerId, true);
+                        approved.incrementAndGet();
+                    } catch (InvalidBookingException | ConcurrentUpdateException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -8,16 +8,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebM
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -157,6 +163,121 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createBookingsExpectedStatus200() throws Exception {
+        List<BookingBatchResultDto> results = List.of(BookingBatchResultDto.builder()
+                .index(0)
+                .itemId(1L)
+                .booking(bookingDto)
+                .build());
+        when(bookingService.createBookings(anyLong(), anyList()))
+                .thenReturn(results);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingRequestDto)))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+    }
+
+    @Test
+    void createBookingsWithRejectedEntryExpectedStatus400() throws Exception {
+        when(bookingService.createBookings(anyLong(), anyList()))
+                .thenReturn(List.of(BookingBatchResultDto.builder()
+                        .index(0)
+                        .itemId(1L)
+                        .error("Item cannot be booked")
+                        .build()));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingRequestDto)))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].error", is("Item cannot be booked")));
+    }
+
+    @Test
+    void createBookingsWithInvalidEntryExpectedStatus500() throws Exception {
+        bookingRequestDto.setStart(past);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingRequestDto)))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void updateBookingsExpectedStatus200() throws Exception {
+        bookingDto.setStatus(APPROVED);
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).itemId(1L).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Booking not found.").build());
+        when(bookingService.updateBookings(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(results);
+
+        mvc.perform(patch("/bookings/owner/bulk")
+                        .content(mapper.writeValueAsString(new BookingBulkRequestDto(List.of(1L, 2L), true)))
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+    }
+
+    @Test
+    void findPendingByOwnerExpectedStatus200() throws Exception {
+        when(bookingService.findPendingByOwner(anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings/owner/pending")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is("WAITING")));
+    }
+
+    @Test
+    void findPendingByOwnerWithCursorReturnsNextCursor() throws Exception {
+        when(bookingService.findPendingByOwnerAfter(anyLong(), anyString(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+        String next = new PageCursor(bookingDto.getStart(), bookingDto.getId()).encode();
+
+        mvc.perform(get("/bookings/owner/pending?size=1&cursor={cursor}", next)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getSummaryExpectedStatus200() throws Exception {
+        BookingSummaryDto summary = BookingSummaryDto.builder().all(3).current(1).future(2).waiting(2).build();
+        when(bookingService.getBookerSummary(anyLong())).thenReturn(summary);
+        when(bookingService.getOwnerSummary(anyLong())).thenReturn(summary);
+
+        mvc.perform(get("/bookings/summary")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(3)))
+                .andExpect(jsonPath("$.current", is(1)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.waiting", is(2)));
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.past", is(0)));
+    }
+
     @Test
     void updateBookingExpectedStatus200() throws Exception {
         bookingDto.setStatus(APPROVED);
@@ -199,6 +320,21 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.error", is("Not Found Exception")));
     }
 
+    @Test
+    void updateBookingExpectedStatus409() throws Exception {
+        when(bookingService.updateBooking(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 5L));
+
+        mvc.perform(patch("/bookings/{id}?approved=true", 5)
+                        .characterEncoding(UTF_8)
+                        .contentType(APPLICATION_JSON)
+                        .accept(APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Concurrent update, retry the request!")));
+    }
+
     @Test
     void findBookingByUserIdExpectedStatus200() throws Exception {
         when(bookingService.findBookingByUserId(anyLong(), anyLong()))
@@ -233,6 +369,19 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    void findByBookerWithCursorReturnsNextCursor() throws Exception {
+        when(bookingService.findByBookerAfter(anyLong(), any(BookingState.class), anyString(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+        String next = new PageCursor(bookingDto.getStart(), bookingDto.getId()).encode();
+
+        mvc.perform(get("/bookings?state=ALL&size=1&cursor={cursor}", next)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     void findAllByBookerWithWrongFromExpectedStatus500() throws Exception {
         mvc.perform(get("/bookings?state=WAITING&from=-2&size=2")
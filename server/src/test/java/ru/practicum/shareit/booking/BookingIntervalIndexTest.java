@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.error.InvalidBookingException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+public class BookingIntervalIndexTest {
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void init() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(APPROVED), any())).thenReturn(List.of(
+                view(10L, base, base.plusHours(2)),
+                view(11L, base.plusHours(1), base.plusHours(3)),
+                view(12L, base.plusHours(5), base.plusHours(6))));
+        index = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @Test
+    void detectsOverlapsWithLoadedIntervals() {
+        assertThat(index.overlaps(1L, base.minusHours(1), base), equalTo(false));
+        assertThat(index.overlaps(1L, base.plusHours(3), base.plusHours(5)), equalTo(false));
+        assertThat(index.overlaps(1L, base.plusMinutes(150), base.plusHours(4)), equalTo(true));
+        assertThat(index.overlaps(1L, base.plusHours(4), base.plusHours(7)), equalTo(true));
+        assertThat(index.overlaps(1L, base.minusHours(1), base.plusHours(8)), equalTo(true));
+        assertThat(index.overlaps(2L, base, base.plusHours(8)), equalTo(false));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), eq(APPROVED), any());
+    }
+
+    @Test
+    void reserveRejectsOverlapAndReleaseFreesInterval() {
+        index.reserve(1L, 20L, base.plusHours(3), base.plusHours(4));
+
+        assertThrows(InvalidBookingException.class,
+                () -> index.reserve(1L, 21L, base.plusMinutes(210), base.plusMinutes(270)));
+
+        index.release(1L, 20L, base.plusHours(3));
+        index.reserve(1L, 21L, base.plusMinutes(210), base.plusMinutes(270));
+        assertThat(index.overlaps(1L, base.plusHours(3), base.plusMinutes(210)), equalTo(false));
+    }
+
+    @Test
+    void concurrentReservationsForSameIntervalAdmitOne() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new CopyOnWriteArrayList<>();
+            for (long i = 0; i < threads; i++) {
+                long bookingId = 100 + i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        index.reserve(1L, bookingId, base.plusHours(7).plusMinutes(bookingId % 3),
+                                base.plusHours(8));
+                        reserved.incrementAndGet();
+                    } catch (InvalidBookingException ignored) {
+                    }
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(reserved.get(), equalTo(1));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), eq(APPROVED), any());
+    }
+
+    private BookingItemView view(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingItemView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 2L;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return APPROVED;
+            }
+        };
+    }
+}
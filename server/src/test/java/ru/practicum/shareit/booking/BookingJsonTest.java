@@ -6,6 +6,7 @@ import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
 
@@ -33,4 +34,19 @@ public class BookingJsonTest {
         assertThat(result).extractingJsonPathStringValue("$.end")
                 .isEqualTo(LocalDateTime.of(2022, 5, 10, 10, 30, 15).toString());
     }
+
+    @Test
+    void serializeBookingDtoWithoutEntityBookkeeping() throws Exception {
+        BookingDto bookingDto = BookingDto
+                .builder()
+                .id(1L)
+                .item(Item.builder().id(2L).name("Hammer").available(true).commentCount(4L).version(3L).build())
+                .build();
+
+        JsonContent<BookingDto> result = json.write(bookingDto);
+
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo("Hammer");
+        assertThat(result).doesNotHaveJsonPath("$.item.version");
+        assertThat(result).doesNotHaveJsonPath("$.item.commentCount");
+    }
 }
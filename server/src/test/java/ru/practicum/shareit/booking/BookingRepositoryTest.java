@@ -5,20 +5,31 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
-import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
-import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+import static ru.practicum.shareit.booking.model.BookingStatus.*;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.BOOKER;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.OWNER;
 
 @DataJpaTest
 public class BookingRepositoryTest {
@@ -32,6 +43,12 @@ public class BookingRepositoryTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
     private User user;
     private User user1;
     private Item item;
@@ -67,59 +84,190 @@ public class BookingRepositoryTest {
 
 
     @Test
-    void findAllByBookerIdOrderByStartDesc() {
+    void findPageForBookerInAllStates() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat((long) bookingRepository.findAllByBookerIdOrderByStartDesc(user1.getId(),
-                Pageable.ofSize(10)).size(), equalTo(1L));
+        List<BookingDto> bookings = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.ALL, LocalDateTime.now()));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
+    }
+
+    @Test
+    void findPageReturnsTheSameItemAsTheEntity() {
+        userRepository.save(user);
+        userRepository.save(user1);
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("need a hammer")
+                .requester(user1)
+                .created(LocalDateTime.now().withNano(0))
+                .build());
+        item.setRequest(request);
+        itemRepository.save(item);
+        bookingRepository.save(booking);
+
+        Item found = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.ALL, LocalDateTime.now()))
+                .get(0).getItem();
+
+        assertThat(found.getOwner().getId(), equalTo(user.getId()));
+        assertThat(found.getOwner().getEmail(), equalTo("oleg@email.com"));
+        assertThat(found.getRequest().getId(), equalTo(request.getId()));
+        assertThat(found.getRequest().getDescription(), equalTo("need a hammer"));
+        assertThat(found.getRequest().getCreated(), equalTo(request.getCreated()));
+        assertThat(found.getRequest().getRequester().getName(), equalTo("Ivan"));
+        assertThat(found.getCommentCount(), equalTo(item.getCommentCount()));
+        assertThat(found.getVersion(), equalTo(item.getVersion()));
     }
 
     @Test
-    void findAllByBookerIdAndEndIsBeforeOrderByStartDesc() {
+    void findPageForBookerInPastState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().plusDays(30), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.PAST, LocalDateTime.now().plusDays(30)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByBookerIdAndStartIsAfterOrderByStartDesc() {
+    void findPageForBookerInFutureState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().minusDays(10), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.FUTURE, LocalDateTime.now().minusDays(10)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc() {
+    void findPageForBookerInCurrentState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(user1.getId(),
-                LocalDateTime.now().plusDays(30), LocalDateTime.now(), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.CURRENT, LocalDateTime.now().plusDays(15)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByBookerIdAndStatusOrderByStartDesc() {
+    void findPageForBookerInCurrentStateRestrictedToIds() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
-        booking.setStatus(APPROVED);
         bookingRepository.save(booking);
+        LocalDateTime now = LocalDateTime.now().plusDays(15);
+
+        List<BookingDto> matching = bookingRepository.findPage(BookingQuery.builder()
+                .role(BOOKER).userId(user1.getId()).state(BookingState.CURRENT).now(now)
+                .ids(List.of(booking.getId())).offset(0).limit(10).build());
+        List<BookingDto> other = bookingRepository.findPage(BookingQuery.builder()
+                .role(BOOKER).userId(user1.getId()).state(BookingState.CURRENT).now(now)
+                .ids(List.of(booking.getId() + 1)).offset(0).limit(10).build());
+
+        assertThat(matching.size(), equalTo(1));
+        assertThat(matching.get(0).getId(), equalTo(booking.getId()));
+        assertThat(other.size(), equalTo(0));
+    }
+
+    @Test
+    void findPageSplitsLongIdListIntoChunks() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        bookingRepository.save(booking);
+        Booking later = bookingRepository.save(Booking.builder()
+                .start(booking.getStart().plusDays(1))
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user1)
+                .status(WAITING)
+                .build());
+        List<Long> ids = new ArrayList<>();
+        ids.add(booking.getId());
+        for (long i = 1; i <= 2500; i++) {
+            ids.add(-i);
+        }
+        ids.add(later.getId());
+
+        List<BookingDto> bookings = bookingRepository.findPage(BookingQuery.builder()
+                .role(BOOKER).userId(user1.getId()).state(BookingState.CURRENT)
+                .now(LocalDateTime.now().plusDays(15)).ids(ids).offset(0).limit(10).build());
+        List<BookingDto> second = bookingRepository.findPage(BookingQuery.builder()
+                .role(BOOKER).userId(user1.getId()).state(BookingState.CURRENT)
+                .now(LocalDateTime.now().plusDays(15)).ids(ids).offset(1).limit(1).build());
+
+        assertThat(bookings.size(), equalTo(2));
+        assertThat(bookings.get(0).getId(), equalTo(later.getId()));
+        assertThat(bookings.get(1).getId(), equalTo(booking.getId()));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    void findPageMergesArchiveForPastAndAllStates() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        LocalDateTime now = LocalDateTime.now();
+        booking.setStart(now.minusDays(5));
+        booking.setEnd(now.minusDays(4));
+        bookingRepository.save(booking);
+        for (long i = 1; i <= 2; i++) {
+            archivedBookingRepository.save(ArchivedBooking.builder()
+                    .id(-i)
+                    .start(now.minusYears(2).plusDays(i))
+                    .end(now.minusYears(2).plusDays(i + 1))
+                    .item(item)
+                    .booker(user1)
+                    .ownerId(user.getId())
+                    .status(APPROVED)
+                    .build());
+        }
+
+        List<BookingDto> past = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.PAST, now));
+        List<BookingDto> secondPage = bookingRepository.findPage(BookingQuery.builder()
+                .role(OWNER).userId(user.getId()).state(BookingState.ALL).now(now).offset(1).limit(1).build());
+        List<BookingDto> future = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.FUTURE,
+                now.minusYears(3)));
+
+        assertThat(past.size(), equalTo(3));
+        assertThat(past.get(0).getId(), equalTo(booking.getId()));
+        assertThat(past.get(1).getId(), equalTo(-2L));
+        assertThat(past.get(2).getId(), equalTo(-1L));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(-2L));
+        assertThat(future.size(), equalTo(1));
+    }
+
+    @Test
+    void findPageForBookerInRejectedState() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        booking.setStatus(REJECTED);
+        bookingRepository.save(booking);
+
+        List<BookingDto> bookings = bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.REJECTED, LocalDateTime.now()));
 
-        assertThat(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user1.getId(),
-                APPROVED, Pageable.ofSize(10)).size(), equalTo(1));
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
@@ -137,72 +285,161 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc() {
+    void findPageForOwnerInAllStates() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(user.getId(),
-                Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.ALL, LocalDateTime.now()));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc() {
+    void findPageForOwnerInPastState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(user.getId(),
-                LocalDateTime.now().plusDays(30), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.PAST, LocalDateTime.now().plusDays(30)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc() {
+    void findPageForOwnerInFutureState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.now().minusDays(10), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.FUTURE, LocalDateTime.now().minusDays(10)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc() {
+    void findPageForOwnerInCurrentState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.now().plusDays(30), LocalDateTime.now(), Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.CURRENT, LocalDateTime.now().plusDays(15)));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusOrderByStartDesc() {
+    void findPageForOwnerInWaitingState() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
-        booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(),
-                APPROVED, Pageable.ofSize(10)).size(), equalTo(1));
+        List<BookingDto> bookings = bookingRepository.findPage(query(OWNER, user.getId(), BookingState.WAITING, LocalDateTime.now()));
+
+        assertThat(bookings.size(), equalTo(1));
+        assertThat(bookings.get(0).getItem().getName(), equalTo("Hammer"));
+        assertThat(bookings.get(0).getBooker().getName(), equalTo("Ivan"));
     }
 
     @Test
-    void findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore() {
+    void existsByBookerIdAndItemIdAndStatusAndEndIsBefore() {
         userRepository.save(user);
         itemRepository.save(item);
         userRepository.save(user1);
         booking.setStatus(APPROVED);
         bookingRepository.save(booking);
 
-        assertThat(bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(user1.getId(),
-                        item.getId(), APPROVED, LocalDateTime.now().plusDays(30)).size(),
+        assertThat(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(user1.getId(),
+                item.getId(), APPROVED, LocalDateTime.now().plusDays(30)), equalTo(true));
+        assertThat(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndIsBefore(user1.getId(),
+                item.getId(), APPROVED, LocalDateTime.now()), equalTo(false));
+        assertThat(bookingRepository.findBookerItemPairsByStatusAfter(APPROVED, 0L, Pageable.ofSize(10)).size(),
                 equalTo(1));
+        assertThat(bookingRepository.findBookerItemPairsByStatusAfter(APPROVED, booking.getId(), Pageable.ofSize(10))
+                .size(), equalTo(0));
     }
 
+    @Test
+    void findLastAndNextByItemIdIn() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(5))
+                .end(now.minusDays(4))
+                .item(item)
+                .booker(user1)
+                .status(APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(now.minusDays(10))
+                .end(now.minusDays(9))
+                .item(item)
+                .booker(user1)
+                .status(APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .item(item)
+                .booker(user1)
+                .status(WAITING)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .start(now.minusHours(1))
+                .end(now.plusHours(1))
+                .item(item)
+                .booker(user1)
+                .status(APPROVED)
+                .build());
+        booking.setStatus(APPROVED);
+        bookingRepository.save(booking);
+
+        List<BookingItemView> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(item.getId()), APPROVED, now);
+
+        assertThat(bookings.size(), equalTo(2));
+        assertThat(bookings.stream().anyMatch(b -> b.getId().equals(last.getId())), equalTo(true));
+        assertThat(bookings.stream().anyMatch(b -> b.getId().equals(booking.getId())), equalTo(true));
+    }
+
+    @Test
+    void findPageExcludesOtherStatesAndUsers() {
+        userRepository.save(user);
+        itemRepository.save(item);
+        userRepository.save(user1);
+        bookingRepository.save(booking);
+
+        assertThat(bookingRepository.findPage(query(BOOKER, user.getId(), BookingState.ALL,
+                LocalDateTime.now())).size(), equalTo(0));
+        assertThat(bookingRepository.findPage(query(OWNER, user.getId(), BookingState.PAST,
+                LocalDateTime.now())).size(), equalTo(0));
+        assertThat(bookingRepository.findPage(query(BOOKER, user1.getId(), BookingState.REJECTED,
+                LocalDateTime.now())).size(), equalTo(0));
+    }
+
+    private BookingQuery query(BookingQuery.Role role, Long userId, BookingState state, LocalDateTime now) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .now(now)
+                .offset(0)
+                .limit(10)
+                .build();
+    }
 }
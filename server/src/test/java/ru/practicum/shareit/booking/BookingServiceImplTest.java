@@ -7,26 +7,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+import static ru.practicum.shareit.booking.model.BookingStatus.*;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
@@ -36,6 +46,8 @@ public class BookingServiceImplTest {
 
     private final EntityManager em;
     private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserService userService;
     private final ItemService itemService;
     private final LocalDateTime timestamp1 = LocalDateTime.of(2022, 11, 20, 10, 30);
@@ -120,6 +132,78 @@ public class BookingServiceImplTest {
         assertThat(e.getMessage(), equalTo("Booking not found."));
     }
 
+    @Test
+    void failApprovingOverlappingBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start).end(start.plusDays(2)).itemId(1L).build());
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.plusDays(1)).end(start.plusDays(3)).itemId(1L).build());
+        bookingService.updateBooking(1L, 1L, true);
+
+        InvalidBookingException e = assertThrows(InvalidBookingException.class,
+                () -> bookingService.updateBooking(2L, 1L, true));
+        assertThat(e.getMessage(), equalTo("Item with id 1 is already booked for this period"));
+        assertThrows(InvalidBookingException.class, () -> bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.minusHours(1)).end(start.plusHours(1)).itemId(1L).build()));
+    }
+
+    @Test
+    void createBookingsInBatch() {
+        itemService.createItem(1L, ItemDto.builder().name("drill").description("drill").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingBatchResultDto> results = bookingService.createBookings(2L, List.of(
+                BookingRequestDto.builder().start(start).end(start.plusDays(1)).itemId(1L).build(),
+                BookingRequestDto.builder().start(start).end(start.plusDays(1)).itemId(2L).build()));
+
+        assertThat(results.size(), equalTo(2));
+        assertThat(results.get(1).getIndex(), equalTo(1));
+        assertThat(results.get(1).getBooking().getItem().getId(), equalTo(2L));
+        assertThat(em.createQuery("SELECT b FROM Booking b", Booking.class).getResultList().size(), equalTo(2));
+    }
+
+    @Test
+    void createBookingsRejectsWholeBatch() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingBatchResultDto> results = bookingService.createBookings(2L, List.of(
+                BookingRequestDto.builder().start(start).end(start.plusDays(1)).itemId(1L).build(),
+                BookingRequestDto.builder().start(start).end(start.plusDays(1)).itemId(50L).build()));
+
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(0).getBooking(), nullValue());
+        assertThat(results.get(1).getError(), equalTo("Invalid item ID"));
+        assertThat(em.createQuery("SELECT b FROM Booking b", Booking.class).getResultList().size(), equalTo(0));
+    }
+
+    @Test
+    void bulkApproveSkipsOverlapsAndForeignBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start).end(start.plusDays(2)).itemId(1L).build());
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.plusDays(1)).end(start.plusDays(3)).itemId(1L).build());
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .start(start.plusDays(4)).end(start.plusDays(5)).itemId(1L).build());
+
+        List<BookingDto> pending = bookingService.findPendingByOwner(1L, 0, 10);
+        assertThat(pending.size(), equalTo(3));
+        assertThat(pending.get(0).getStart().isBefore(pending.get(1).getStart()), equalTo(true));
+
+        List<BookingBatchResultDto> results = bookingService.updateBookings(1L, List.of(1L, 2L, 3L, 50L), true);
+
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(APPROVED));
+        assertThat(results.get(1).getError(), equalTo("Item with id 1 is already booked for this period"));
+        assertThat(results.get(2).getBooking().getStatus(), equalTo(APPROVED));
+        assertThat(results.get(3).getError(), equalTo("Booking not found."));
+        assertThat(bookingService.findPendingByOwner(1L, 0, 10).size(), equalTo(1));
+
+        List<BookingBatchResultDto> foreign = bookingService.updateBookings(2L, List.of(2L), false);
+        assertThat(foreign.get(0).getError(), equalTo("Booking not found."));
+        List<BookingBatchResultDto> repeated = bookingService.updateBookings(1L, List.of(1L, 2L), false);
+        assertThat(repeated.get(0).getError(), equalTo("Unable to change booking status."));
+        assertThat(repeated.get(1).getBooking().getStatus(), equalTo(REJECTED));
+    }
+
     @Test
     void getBookingById() {
         bookingService.createBooking(2L, bookingRequestDto);
@@ -128,6 +212,31 @@ public class BookingServiceImplTest {
         assertThat(booking1.getStatus(), equalTo(WAITING));
     }
 
+    @Test
+    void getArchivedBookingById() {
+        bookingService.createBooking(2L, bookingRequestDto);
+        Booking booking = bookingRepository.findById(1L).orElseThrow();
+        archivedBookingRepository.save(ArchivedBooking.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .ownerId(booking.getOwnerId())
+                .status(booking.getStatus())
+                .version(booking.getVersion())
+                .build());
+        bookingRepository.deleteById(1L);
+
+        BookingDto byBooker = bookingService.findBookingByUserId(1L, 2L);
+        BookingDto byOwner = bookingService.findBookingByUserId(1L, 1L);
+
+        assertThat(byBooker.getStart(), equalTo(timestamp1));
+        assertThat(byBooker.getItem().getName(), equalTo("name"));
+        assertThat(byOwner.getBooker().getName(), equalTo("Roman"));
+        assertThrows(ModelNotFoundException.class, () -> bookingService.findBookingByUserId(1L, 3L));
+    }
+
     @Test
     void failGettingBookingByIdWhenBookingNotFound() {
         ModelNotFoundException e = assertThrows(ModelNotFoundException.class,
@@ -191,6 +300,59 @@ public class BookingServiceImplTest {
         assertThat(bookings.size(), equalTo(0));
     }
 
+    @Test
+    void findCurrentBookingsThroughRegistry() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRequestDto.setStart(now.minusHours(1));
+        bookingRequestDto.setEnd(now.plusHours(1));
+        BookingDto current = bookingService.createBooking(2L, bookingRequestDto);
+        bookingRequestDto.setStart(now.plusDays(1));
+        bookingRequestDto.setEnd(now.plusDays(2));
+        bookingService.createBooking(2L, bookingRequestDto);
+
+        List<BookingDto> byBooker = bookingService.findByBooker(2L, BookingState.CURRENT, 0, 10);
+        List<BookingDto> byOwner = bookingService.findByOwner(1L, BookingState.CURRENT, 0, 10);
+
+        assertThat(byBooker.size(), equalTo(1));
+        assertThat(byBooker.get(0).getId(), equalTo(current.getId()));
+        assertThat(byOwner.size(), equalTo(1));
+        assertThat(byOwner.get(0).getId(), equalTo(current.getId()));
+    }
+
+    @Test
+    void summaryFollowsCreatesAndStatusChanges() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingRequestDto.setStart(now.minusHours(1));
+        bookingRequestDto.setEnd(now.plusHours(1));
+        bookingService.createBooking(2L, bookingRequestDto);
+        BookingSummaryDto loaded = bookingService.getBookerSummary(2L);
+        bookingService.getOwnerSummary(1L);
+
+        bookingRequestDto.setStart(now.plusDays(1));
+        bookingRequestDto.setEnd(now.plusDays(2));
+        BookingDto approved = bookingService.createBooking(2L, bookingRequestDto);
+        bookingRequestDto.setStart(now.plusDays(3));
+        bookingRequestDto.setEnd(now.plusDays(4));
+        BookingDto rejected = bookingService.createBooking(2L, bookingRequestDto);
+        bookingService.updateBooking(approved.getId(), 1L, true);
+        bookingService.updateBooking(rejected.getId(), 1L, false);
+
+        BookingSummaryDto booker = bookingService.getBookerSummary(2L);
+        BookingSummaryDto owner = bookingService.getOwnerSummary(1L);
+
+        assertThat(loaded.getAll(), equalTo(1L));
+        assertThat(loaded.getCurrent(), equalTo(1L));
+        for (BookingSummaryDto summary : List.of(booker, owner)) {
+            assertThat(summary.getAll(), equalTo(3L));
+            assertThat(summary.getCurrent(), equalTo(1L));
+            assertThat(summary.getFuture(), equalTo(2L));
+            assertThat(summary.getPast(), equalTo(0L));
+            assertThat(summary.getWaiting(), equalTo(1L));
+            assertThat(summary.getRejected(), equalTo(1L));
+        }
+        assertThat(bookingService.getBookerSummary(1L).getAll(), equalTo(0L));
+    }
+
     @Test
     void findAllByBookerByStateAll() {
         bookingService.createBooking(2L, bookingRequestDto);
@@ -201,6 +363,61 @@ public class BookingServiceImplTest {
         assertThat(bookings.get(0).getId(), equalTo(1L));
     }
 
+    @Test
+    void findByBookerAndOwnerWithCursorWalksAllPages() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.createBooking(2L, BookingRequestDto.builder()
+                    .start(start.plusDays(i % 3)).end(start.plusDays(10)).itemId(1L).build());
+        }
+        List<BookingDto> expected = bookingService.findByBooker(2L, BookingState.FUTURE, 0, 10);
+
+        for (boolean owner : List.of(false, true)) {
+            List<BookingDto> walked = new ArrayList<>();
+            List<BookingDto> page = owner
+                    ? bookingService.findByOwner(1L, BookingState.FUTURE, 0, 2)
+                    : bookingService.findByBooker(2L, BookingState.FUTURE, 0, 2);
+            while (!page.isEmpty()) {
+                walked.addAll(page);
+                BookingDto last = page.get(page.size() - 1);
+                String cursor = new PageCursor(last.getStart(), last.getId()).encode();
+                page = owner
+                        ? bookingService.findByOwnerAfter(1L, BookingState.FUTURE, cursor, 2)
+                        : bookingService.findByBookerAfter(2L, BookingState.FUTURE, cursor, 2);
+            }
+            assertThat(walked.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                    equalTo(expected.stream().map(BookingDto::getId).collect(Collectors.toList())));
+        }
+        assertThat(expected.size(), equalTo(5));
+        assertThrows(InvalidBookingException.class,
+                () -> bookingService.findByBookerAfter(2L, BookingState.ALL, "not-a-cursor", 2));
+    }
+
+    @Test
+    void findPendingByOwnerWithCursorWalksQueue() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            bookingService.createBooking(2L, BookingRequestDto.builder()
+                    .start(start.plusDays(i % 2)).end(start.plusDays(10)).itemId(1L).build());
+        }
+        bookingService.updateBooking(3L, 1L, false);
+        List<BookingDto> expected = bookingService.findPendingByOwner(1L, 0, 10);
+
+        List<BookingDto> walked = new ArrayList<>();
+        List<BookingDto> page = bookingService.findPendingByOwner(1L, 0, 2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            BookingDto last = page.get(page.size() - 1);
+            page = bookingService.findPendingByOwnerAfter(1L,
+                    new PageCursor(last.getStart(), last.getId()).encode(), 2);
+        }
+
+        assertThat(expected.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(1L, 5L, 2L, 4L)));
+        assertThat(walked.stream().map(BookingDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(1L, 5L, 2L, 4L)));
+    }
+
     @Test
     void findAllByBookerFailByWrongState() {
         bookingService.createBooking(2L, bookingRequestDto);
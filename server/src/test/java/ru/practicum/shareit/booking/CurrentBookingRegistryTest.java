@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.current.CurrentBookingRegistry;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TimingWheel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.BOOKER;
+import static ru.practicum.shareit.booking.repository.BookingQuery.Role.OWNER;
+
+public class CurrentBookingRegistryTest {
+
+    @Test
+    void timingWheelFiresTasksAcrossLevelsInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 2, 2, 0);
+        List<Long> deadlines = List.of(5L, 40L, 150L, 160L, 1000L, 175L, 30L);
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+        List<Long> fired = new ArrayList<>();
+
+        for (long now = 0; now <= 1000; now += 10) {
+            long at = now;
+            wheel.advance(now, deadline -> {
+                assertThat(at - deadline < 10 && at >= deadline, equalTo(true));
+                fired.add(deadline);
+            });
+        }
+
+        assertThat(fired, equalTo(List.of(5L, 30L, 40L, 150L, 160L, 175L, 1000L)));
+        assertThat(wheel.size(), equalTo(0));
+        assertThat(wheel.schedule(995, 995L), equalTo(false));
+    }
+
+    @Test
+    void registerTracksOnlyBookingsCoveringNow() {
+        CurrentBookingRegistry registry = new CurrentBookingRegistry(mock(BookingRepository.class),
+                Duration.ofSeconds(1), new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+
+        registry.register(1L, 2L, 1L, now.minusHours(1), now.plusHours(1));
+        registry.register(2L, 2L, 1L, now.plusHours(1), now.plusHours(2));
+        registry.register(3L, 2L, 1L, now.minusHours(2), now.minusHours(1));
+        registry.register(4L, 3L, 1L, now.minusMinutes(1), now.plusMinutes(1));
+
+        assertThat(registry.findCurrentIds(BOOKER, 2L), equalTo(Set.of(1L)));
+        assertThat(registry.findCurrentIds(BOOKER, 3L), equalTo(Set.of(4L)));
+        assertThat(registry.findCurrentIds(OWNER, 1L), equalTo(Set.of(1L, 4L)));
+        assertThat(registry.findCurrentIds(OWNER, 2L), equalTo(Set.of()));
+        registry.shutdown();
+    }
+
+    @Test
+    void bookingLeavesSetOnceItEnds() throws InterruptedException {
+        CurrentBookingRegistry registry = new CurrentBookingRegistry(mock(BookingRepository.class),
+                Duration.ofMillis(10), new SimpleMeterRegistry());
+        LocalDateTime now = LocalDateTime.now();
+        registry.register(1L, 2L, 1L, now.minusHours(1), now.plusNanos(Duration.ofMillis(100).toNanos()));
+
+        assertThat(registry.findCurrentIds(BOOKER, 2L), equalTo(Set.of(1L)));
+        Thread.sleep(150);
+        assertThat(registry.findCurrentIds(BOOKER, 2L), equalTo(Set.of()));
+        registry.shutdown();
+    }
+}
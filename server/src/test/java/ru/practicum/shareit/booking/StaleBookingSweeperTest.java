@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.sweeper.StaleBookingSweeper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static ru.practicum.shareit.booking.model.BookingStatus.*;
+
+@SpringBootTest(properties = "shareit.booking.sweeper.batch-size=2")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class StaleBookingSweeperTest {
+
+    private final StaleBookingSweeper sweeper;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void sweepCancelsStaleWaitingBookingsInBatches() {
+        User owner = userRepository.save(User.builder().name("Oleg").email("oleg@email.com").build());
+        User booker = userRepository.save(User.builder().name("Ivan").email("ivan@email.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Hammer")
+                .description("hammering the nail")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            save(item, booker, now.minusHours(i), WAITING);
+        }
+        Booking approved = save(item, booker, now.minusHours(1), APPROVED);
+        Booking future = save(item, booker, now.plusDays(1), WAITING);
+
+        assertThat(sweeper.sweep(), equalTo(5));
+
+        assertThat(bookingRepository.findAll().stream().filter(b -> b.getStatus() == CANCELED).count(), equalTo(5L));
+        assertThat(status(approved), equalTo(APPROVED));
+        assertThat(status(future), equalTo(WAITING));
+        assertThat(meterRegistry.get("shareit.booking.sweeper.expired").counter().count(), equalTo(5.0));
+        assertThat(meterRegistry.get("shareit.booking.sweeper.lag").gauge().value(), greaterThan(5 * 3600.0 - 60));
+        assertThat(sweeper.sweep(), equalTo(0));
+        assertThat(meterRegistry.get("shareit.booking.sweeper.runs").timer().count(), equalTo(2L));
+    }
+
+    private Booking save(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .build());
+    }
+
+    private BookingStatus status(Booking booking) {
+        return bookingRepository.findById(booking.getId()).orElseThrow().getStatus();
+    }
+}
@@ -13,10 +13,12 @@ import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -214,6 +216,42 @@ public class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
     }
 
+    @Test
+    void searchItemByTextAfterCursor() throws Exception {
+        when(itemService.searchAfter(anyString(), anyLong(), anyInt()))
+                .thenReturn(List.of(itemDto));
+        mvc.perform(get("/items/search?text='name'&after=5&size=10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggest(anyString(), anyInt()))
+                .thenReturn(List.of("Hammer"));
+        mvc.perform(get("/items/suggest?prefix=ham")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("Hammer")));
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        List<FreeSlotDto> slots = List.of(new FreeSlotDto(from, from.plusHours(2)));
+        when(itemService.getAvailability(anyLong(), any(), any(), anyBoolean()))
+                .thenReturn(slots);
+        mvc.perform(get("/items/{id}/availability?from=2030-01-01T10:00:00&to=2030-01-01T12:00:00", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(slots)));
+    }
+
     @Test
     void createCommentExpectedStatus200() throws Exception {
         when(itemService.saveComment(anyLong(), anyLong(), any()))
@@ -257,4 +295,17 @@ public class ItemControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("The user cannot leave a review for this item")));
     }
+
+    @Test
+    void getCommentsAfterCursor() throws Exception {
+        when(itemService.getComments(1L, 5L, 2))
+                .thenReturn(List.of(commentDto));
+
+        mvc.perform(get("/items/{id}/comments", 1)
+                        .param("after", "5")
+                        .param("size", "2")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(commentDto))));
+    }
 }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemNameTrieTest {
+
+    private ItemNameTrie trie;
+
+    @BeforeEach
+    void init() {
+        trie = new ItemNameTrie(mock(ItemRepository.class));
+        trie.load();
+        trie.add("Drill");
+        trie.add("Drilling machine");
+        trie.add("Dress");
+        trie.add("Hammer");
+    }
+
+    @Test
+    void suggestReturnsCompletionsInOrder() {
+        assertThat(trie.suggest("dr", 10), equalTo(List.of("Dress", "Drill", "Drilling machine")));
+        assertThat(trie.suggest("DRIL", 10), equalTo(List.of("Drill", "Drilling machine")));
+        assertThat(trie.suggest("drilli", 10), equalTo(List.of("Drilling machine")));
+        assertThat(trie.suggest("d", 2), equalTo(List.of("Dress", "Drill")));
+        assertThat(trie.suggest("saw", 10), empty());
+        assertThat(trie.suggest("drx", 10), empty());
+    }
+
+    @Test
+    void removeKeepsNamesSharedByOtherItems() {
+        trie.add("Drill");
+        trie.remove("Drill");
+        assertThat(trie.suggest("drill", 10), equalTo(List.of("Drill", "Drilling machine")));
+
+        trie.remove("Drill");
+        assertThat(trie.suggest("drill", 10), equalTo(List.of("Drilling machine")));
+
+        trie.remove("Drilling machine");
+        assertThat(trie.suggest("dr", 10), equalTo(List.of("Dress")));
+    }
+
+    @Test
+    void onItemSavedFollowsRenamesAndAvailability() {
+        trie.onItemSaved(new ItemSavedEvent(item("Hammer", true), item("Sledgehammer", true)));
+        assertThat(trie.suggest("ha", 10), empty());
+        assertThat(trie.suggest("sl", 10), equalTo(List.of("Sledgehammer")));
+
+        trie.onItemSaved(new ItemSavedEvent(item("Sledgehammer", true), item("Sledgehammer", false)));
+        assertThat(trie.suggest("sl", 10), empty());
+
+        trie.onItemSaved(new ItemSavedEvent(null, item("Saw", true)));
+        assertThat(trie.suggest("s", 10), equalTo(List.of("Saw")));
+    }
+
+    @Test
+    void loadTakesNamesOfItemsSavedWhileLoadingFromTheirEvents() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemNameTrie loading = new ItemNameTrie(itemRepository);
+        when(itemRepository.findAvailableTextViewsAfter(eq(0L), any())).thenReturn(List.of(view(1L, "Drill")));
+        when(itemRepository.findAvailableTextViewsAfter(eq(1L), any())).thenAnswer(invocation -> {
+            loading.onItemSaved(new ItemSavedEvent(item(1L, "Drill", true), item(1L, "Drill press", true)));
+            loading.onItemSaved(new ItemSavedEvent(item(2L, "Hammer", true), item(2L, "Sledgehammer", true)));
+            loading.onItemSaved(new ItemSavedEvent(item(3L, "Saw", true), item(3L, "Saw", false)));
+            return List.of(view(2L, "Hammer"), view(3L, "Saw"));
+        });
+        when(itemRepository.findAvailableTextViewsAfter(eq(3L), any())).thenReturn(List.of());
+
+        loading.load();
+
+        assertThat(loading.suggest("d", 10), equalTo(List.of("Drill press")));
+        assertThat(loading.suggest("h", 10), empty());
+        assertThat(loading.suggest("s", 10), equalTo(List.of("Sledgehammer")));
+    }
+
+    private ItemDtoShort item(String name, boolean available) {
+        return item(1L, name, available);
+    }
+
+    private ItemDtoShort item(Long id, String name, boolean available) {
+        return ItemDtoShort.builder()
+                .id(id)
+                .name(name)
+                .description("description")
+                .available(available)
+                .build();
+    }
+
+    private static ItemTextView view(Long id, String name) {
+        return new ItemTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "description";
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemPageAssembler;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+@DataJpaTest
+@Import(ItemPageAssembler.class)
+public class ItemPageAssemblerTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemPageAssembler assembler;
+
+    private User owner;
+
+    @BeforeEach
+    void init() {
+        owner = em.persist(User.builder().name("Oleg").email("oleg@email.com").build());
+        User booker = em.persist(User.builder().name("Ivan").email("ivan@email.com").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 6; i++) {
+            Item item = em.persist(Item.builder()
+                    .name("Item " + i)
+                    .description("description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            em.persist(Booking.builder()
+                    .start(now.minusDays(3))
+                    .end(now.minusDays(2))
+                    .item(item)
+                    .booker(booker)
+                    .status(APPROVED)
+                    .build());
+            em.persist(Booking.builder()
+                    .start(now.plusDays(2))
+                    .end(now.plusDays(3))
+                    .item(item)
+                    .booker(booker)
+                    .status(APPROVED)
+                    .build());
+            em.persist(Comment.builder()
+                    .text("comment " + i)
+                    .item(item)
+                    .author(booker)
+                    .created(now)
+                    .build());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void assemblesPageWithFixedStatementCount() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        for (int size : List.of(1, 3, 6)) {
+            statistics.clear();
+            List<ItemDto> items = assembler.assemble(owner.getId(), 0, size);
+
+            assertThat(items.size(), equalTo(size));
+            assertThat(statistics.getPrepareStatementCount(), equalTo(3L));
+            assertThat(statistics.getEntityLoadCount(), equalTo(0L));
+        }
+    }
+
+    @Test
+    void assemblesBookingsAndComments() {
+        List<ItemDto> items = assembler.assemble(owner.getId(), 2, 2);
+
+        assertThat(items.size(), equalTo(2));
+        assertThat(items.get(0).getName(), equalTo("Item 2"));
+        assertThat(items.get(0).getRequestId(), nullValue());
+        assertThat(items.get(0).getLastBooking().getStart().isBefore(LocalDateTime.now()), equalTo(true));
+        assertThat(items.get(0).getNextBooking().getStart().isAfter(LocalDateTime.now()), equalTo(true));
+        assertThat(items.get(0).getComments().size(), equalTo(1));
+        assertThat(items.get(0).getComments().get(0).getAuthorName(), equalTo("Ivan"));
+    }
+}
@@ -4,8 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -32,6 +36,9 @@ public class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private TestEntityManager em;
+
 
     private User user;
     private User user1;
@@ -73,53 +80,124 @@ public class ItemRepositoryTest {
         userRepository.save(user);
         itemRepository.save(item);
 
-        Page<Item> items = itemRepository.search("Hammer", Pageable.ofSize(10));
+        Slice<Item> items = itemRepository.search("Hammer", Pageable.ofSize(10));
 
         assertThat(items.stream().count(), equalTo(1L));
     }
 
     @Test
-    void findAllByItemOwnerId() {
+    void searchItemByTextAfterId() {
         userRepository.save(user);
         itemRepository.save(item);
+        Item second = itemRepository.save(Item.builder()
+                .name("Sledgehammer")
+                .description("heavy tool")
+                .available(true)
+                .owner(user)
+                .build());
 
-        Page<Item> items = itemRepository.findAllByOwnerIdOrderById(user.getId(), Pageable.ofSize(10));
+        Slice<Item> items = itemRepository.searchAfter("hammer", item.getId(), Pageable.ofSize(10));
 
-        assertThat(items.stream().count(), equalTo(1L));
+        assertThat(items.getContent().size(), equalTo(1));
+        assertThat(items.getContent().get(0).getId(), equalTo(second.getId()));
     }
 
     @Test
-    void findAllByRequestId() {
+    void findAvailableTextViewsByIdInSkipsUnavailableItems() {
         userRepository.save(user);
-        itemRequest.setRequester(user);
-        itemRequestRepository.save(itemRequest);
-
-        item.setRequest(itemRequest);
         itemRepository.save(item);
+        Item unavailable = itemRepository.save(Item.builder()
+                .name("Sledgehammer")
+                .description("heavy tool")
+                .available(false)
+                .owner(user)
+                .build());
 
-        List<Item> items = itemRepository.findAllByRequestId(itemRequest.getId());
+        List<ItemTextView> views = itemRepository.findAvailableTextViewsByIdIn(
+                List.of(item.getId(), unavailable.getId()));
 
-        assertThat(items.size(), equalTo(1));
-        assertThat(items.get(0).getId(), equalTo(item.getId()));
+        assertThat(views.size(), equalTo(1));
+        assertThat(views.get(0).getId(), equalTo(item.getId()));
+        assertThat(views.get(0).getDescription(), equalTo("hammering the nail"));
     }
 
     @Test
-    void findAllByRequestIn() {
+    void findAllByItemOwnerId() {
         userRepository.save(user);
-        itemRequest.setRequester(user);
-        itemRequestRepository.save(itemRequest);
-
-        item.setRequest(itemRequest);
         itemRepository.save(item);
 
-        List<ItemRequest> requests = new ArrayList<>();
-        requests.add(itemRequest);
-
-        List<Item> items = itemRepository.findAllByRequestIn(requests);
+        List<ItemView> items = itemRepository.findViewsByOwnerId(user.getId(), Pageable.ofSize(10));
 
         assertThat(items.size(), equalTo(1));
         assertThat(items.get(0).getId(), equalTo(item.getId()));
     }
 
+    @Test
+    void saveOfStaleItemKeepsCommentCountIncrement() {
+        userRepository.save(user);
+        Item saved = itemRepository.save(item);
+        Item stale = Item.builder()
+                .id(saved.getId())
+                .name("Sledgehammer")
+                .description(saved.getDescription())
+                .available(true)
+                .owner(user)
+                .version(saved.getVersion())
+                .build();
+
+        itemRepository.incrementCommentCount(saved.getId());
+        itemRepository.saveAndFlush(stale);
+        em.clear();
+
+        Item reloaded = itemRepository.findById(saved.getId()).orElseThrow();
+        assertThat(reloaded.getName(), equalTo("Sledgehammer"));
+        assertThat(reloaded.getCommentCount(), equalTo(1L));
+    }
+
+    @Test
+    void findViewsByRequestIdInKeepsFirstItemsOfEachRequest() {
+        userRepository.save(user);
+        itemRequestRepository.save(itemRequest);
+        ItemRequest other = itemRequestRepository.save(ItemRequest.builder()
+                .description("other description")
+                .requester(user)
+                .created(LocalDateTime.now())
+                .build());
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(itemRepository.save(Item.builder().name("Hammer " + i).description("hammer").available(true)
+                    .owner(user).request(itemRequest).build()));
+            saved.add(itemRepository.save(Item.builder().name("Drill " + i).description("drill").available(false)
+                    .owner(user).request(other).build()));
+        }
+
+        List<ItemView> views = itemRepository.findViewsByRequestIdIn(List.of(itemRequest.getId(), other.getId()), 2);
+
+        assertThat(views.stream().map(ItemView::getName).collect(Collectors.toList()),
+                equalTo(List.of("Hammer 0", "Drill 0", "Hammer 1", "Drill 1")));
+        assertThat(views.get(1).getId(), equalTo(saved.get(1).getId()));
+        assertThat(views.get(1).getRequestId(), equalTo(other.getId()));
+        assertThat(views.get(1).getAvailable(), equalTo(false));
+        assertThat(views.get(1).getCommentCount(), equalTo(0L));
+    }
 
+    @Test
+    void findUnrequestedTextViewsAfterSkipsRequestedAndUnavailableItems() {
+        userRepository.save(user);
+        itemRequestRepository.save(itemRequest);
+        Item first = itemRepository.save(item);
+        itemRepository.save(Item.builder().name("Drill").description("drill").available(true)
+                .owner(user).request(itemRequest).build());
+        itemRepository.save(Item.builder().name("Saw").description("saw").available(false).owner(user).build());
+        Item last = itemRepository.save(Item.builder().name("Ladder").description("ladder").available(true)
+                .owner(user).build());
+
+        List<ItemTextView> views = itemRepository.findUnrequestedTextViewsAfter(0L, Pageable.ofSize(10));
+
+        assertThat(views.stream().map(ItemTextView::getId).collect(Collectors.toList()),
+                equalTo(List.of(first.getId(), last.getId())));
+        assertThat(views.get(0).getOwnerId(), equalTo(user.getId()));
+        assertThat(itemRepository.findUnrequestedTextViewsAfter(first.getId(), Pageable.ofSize(10)).size(),
+                equalTo(1));
+    }
 }
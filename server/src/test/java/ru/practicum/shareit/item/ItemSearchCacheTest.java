@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemSearchCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(2, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void returnsCachedPageAndCountsHits() {
+        load("drill", "from 0 size 10");
+        load("drill", "from 0 size 10");
+        load("drill", "from 10 size 10");
+
+        assertThat(loads.get(), equalTo(2));
+        assertThat(count("shareit.search.cache.requests", "hit"), equalTo(1.0));
+        assertThat(count("shareit.search.cache.requests", "miss"), equalTo(2.0));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryOverMaxSize() {
+        load("drill", "from 0 size 10");
+        load("ladder", "from 0 size 10");
+        load("drill", "from 0 size 10");
+        load("saw", "from 0 size 10");
+        load("drill", "from 0 size 10");
+        load("ladder", "from 0 size 10");
+
+        assertThat(loads.get(), equalTo(4));
+        assertThat(cache.size(), equalTo(2));
+        assertThat(meterRegistry.get("shareit.search.cache.evictions").functionCounter().count(), equalTo(2.0));
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        cache = new ItemSearchCache(10, Duration.ZERO, meterRegistry);
+        load("drill", "from 0 size 10");
+        load("drill", "from 0 size 10");
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void invalidatesOnlyQueriesMatchingChangedItem() {
+        load("drill", "from 0 size 10");
+        load("ladder", "from 0 size 10");
+
+        cache.onItemSaved(new ItemSavedEvent(null, item("Cordless drill", "battery", true)));
+        load("drill", "from 0 size 10");
+        load("ladder", "from 0 size 10");
+        assertThat(loads.get(), equalTo(3));
+
+        cache.onItemSaved(new ItemSavedEvent(item("Old ladder", "wood", false), item("Old ladder", "wood", false)));
+        load("ladder", "from 0 size 10");
+        assertThat(loads.get(), equalTo(3));
+
+        cache.onItemSaved(new ItemSavedEvent(item("Old ladder", "wood", true), item("Old ladder", "wood", false)));
+        load("ladder", "from 0 size 10");
+        assertThat(loads.get(), equalTo(4));
+    }
+
+    private List<ItemDto> load(String query, String window) {
+        return cache.get(query, window, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("result", result).functionCounter().count();
+    }
+
+    private ItemDtoShort item(String name, String description, boolean available) {
+        return ItemDtoShort.builder()
+                .id(1L)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
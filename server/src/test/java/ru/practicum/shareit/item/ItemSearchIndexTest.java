@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ItemSearchIndexTest {
+
+    private final Map<Long, ItemTextView> items = new HashMap<>();
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void init() {
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAvailableTextViewsAfter(any(), any())).thenReturn(List.of());
+        when(itemRepository.findAvailableTextViewsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+        index = new ItemSearchIndex(itemRepository);
+        index.load();
+        save(1L, "Hammer", "hammering the nail", true);
+        save(2L, "Drill", "drilling the wall", true);
+        save(3L, "Sledgehammer", "heavy tool", true);
+    }
+
+    @Test
+    void searchMatchesSubstringInNameOrDescription() {
+        assertThat(index.search("HAMMER", 0, 10), equalTo(List.of(1L, 3L)));
+        assertThat(index.search("ling the w", 0, 10), equalTo(List.of(2L)));
+        assertThat(index.search("the", 0, 10), equalTo(List.of(1L, 2L)));
+    }
+
+    @Test
+    void searchVerifiesCandidatesAgainstDatabase() {
+        save(4L, "Mallet", "not a sledgeh, a gehammer", true);
+
+        assertThat(index.search("sledgehammer", 0, 10), equalTo(List.of(3L)));
+        verify(itemRepository).findAvailableTextViewsByIdIn(List.of(3L, 4L));
+    }
+
+    @Test
+    void shortQueriesAreLeftToDatabase() {
+        assertThat(index.canSearch("ham"), equalTo(true));
+        assertThat(index.canSearch("ha"), equalTo(false));
+        assertThat(index.search("l", 0, 10), empty());
+    }
+
+    @Test
+    void searchDoesNotMatchAcrossNameAndDescription() {
+        assertThat(index.search("drillhammer", 0, 10), empty());
+        assertThat(index.search("rdrill", 0, 10), empty());
+    }
+
+    @Test
+    void searchAppliesOffsetAndLimit() {
+        assertThat(index.search("the", 1, 1), equalTo(List.of(2L)));
+        assertThat(index.search("mme", 1, 5), equalTo(List.of(3L)));
+    }
+
+    @Test
+    void searchAfterContinuesFromLastId() {
+        assertThat(index.search("hammer", 0, 1), equalTo(List.of(1L)));
+        assertThat(index.searchAfter("hammer", 1L, 1), equalTo(List.of(3L)));
+        assertThat(index.searchAfter("hammer", 3L, 1), empty());
+    }
+
+    @Test
+    void reindexReplacesTextAndDropsUnavailableItems() {
+        save(1L, "Saw", "cutting boards", true);
+        assertThat(index.search("hammer", 0, 10), equalTo(List.of(3L)));
+        assertThat(index.search("saw", 0, 10), equalTo(List.of(1L)));
+        assertThat(index.search("nai", 0, 10), empty());
+
+        save(3L, "Sledgehammer", "heavy tool", false);
+        assertThat(index.search("hammer", 0, 10), empty());
+        assertThat(index.search("hea", 0, 10), empty());
+    }
+
+    @Test
+    void loadSkipsSnapshotRowsOfItemsSavedWhileLoading() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemSearchIndex loading = new ItemSearchIndex(itemRepository);
+        when(itemRepository.findAvailableTextViewsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            loading.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                    .id(1L).name("Hammer").description("hammering the nail").available(false).build()));
+            loading.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                    .id(2L).name("Saw").description("cutting boards").available(true).build()));
+            return List.of(view(1L, "Hammer", "hammering the nail"), view(2L, "Drill", "drilling the wall"));
+        });
+        when(itemRepository.findAvailableTextViewsAfter(eq(2L), any())).thenReturn(List.of());
+
+        loading.load();
+
+        assertThat(loading.isReady(), equalTo(true));
+        assertThat(loading.search("hammer", 0, 10), empty());
+        assertThat(loading.search("drill", 0, 10), empty());
+        assertThat(loading.search("saw", 0, 10), equalTo(List.of(2L)));
+    }
+
+    private void save(Long id, String name, String description, boolean available) {
+        ItemTextView previous = items.get(id);
+        if (available) {
+            items.put(id, view(id, name, description));
+        } else {
+            items.remove(id);
+        }
+        index.onItemSaved(new ItemSavedEvent(
+                previous == null ? null : ItemDtoShort.builder().id(id).name(previous.getName())
+                        .description(previous.getDescription()).available(true).build(),
+                ItemDtoShort.builder().id(id).name(name).description(description).available(available).build()));
+    }
+
+    private static ItemTextView view(Long id, String name, String description) {
+        return new ItemTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 1L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+}
@@ -6,10 +6,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
-import org.springframework.transaction.TransactionSystemException;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.InvalidBookingException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.error.UserHaveNotAccessException;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
@@ -18,6 +23,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -35,6 +42,8 @@ public class ItemServiceImplTest {
     private final EntityManager em;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
 
 
     private final UserDto userDto = UserDto
@@ -104,7 +113,7 @@ public class ItemServiceImplTest {
         itemService.createItem(1L, itemDto);
         itemDto.setDescription(null);
 
-        TransactionSystemException e = assertThrows(TransactionSystemException.class,
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
                 () -> itemService.createItem(1L, itemDto));
 
     }
@@ -116,7 +125,7 @@ public class ItemServiceImplTest {
         itemService.createItem(1L, itemDto);
         itemDto.setAvailable(null);
 
-        TransactionSystemException e = assertThrows(TransactionSystemException.class,
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
                 () -> itemService.createItem(1L, itemDto));
 
     }
@@ -213,4 +222,137 @@ public class ItemServiceImplTest {
 
         assertThat(e.getMessage(), equalTo("Invalid user ID."));
     }
+
+    @Test
+    void saveCommentOnlyAfterCompletedApprovedBooking() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(start).end(start.plusDays(1)).build());
+
+        InvalidBookingException e = assertThrows(InvalidBookingException.class,
+                () -> itemService.saveComment(1L, 2L, commentDto));
+        assertThat(e.getMessage(), equalTo("Unable to add a comment."));
+
+        bookingService.updateBooking(1L, 1L, true);
+        assertThrows(InvalidBookingException.class, () -> itemService.saveComment(1L, 2L, commentDto));
+
+        Booking booking = bookingRepository.findById(1L).orElseThrow();
+        booking.setStart(start.minusDays(3));
+        booking.setEnd(start.minusDays(2));
+        bookingRepository.save(booking);
+        CommentDto saved = itemService.saveComment(1L, 2L, commentDto);
+        assertThat(saved.getText(), equalTo("new comment"));
+    }
+
+    @Test
+    void commentsCountedOnItemAndPagedNewestFirst() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(start).end(start.plusDays(1)).build());
+        bookingService.updateBooking(1L, 1L, true);
+        Booking booking = bookingRepository.findById(1L).orElseThrow();
+        booking.setStart(start.minusDays(3));
+        booking.setEnd(start.minusDays(2));
+        bookingRepository.save(booking);
+
+        for (int i = 1; i <= 3; i++) {
+            itemService.saveComment(1L, 2L, CommentDto.builder().id(1L).text("comment " + i).build());
+        }
+
+        ItemDto item = itemService.getItemByUserId(1L, 2L);
+        assertThat(item.getCommentCount(), equalTo(3L));
+        assertThat(item.getComments().get(0).getText(), equalTo("comment 3"));
+        assertThat(itemService.getItemListByUserId(1L, 0, 10).get(0).getCommentCount(), equalTo(3L));
+
+        List<CommentDto> first = itemService.getComments(1L, null, 2);
+        assertThat(first.size(), equalTo(2));
+        assertThat(first.get(1).getText(), equalTo("comment 2"));
+        List<CommentDto> rest = itemService.getComments(1L, first.get(1).getId(), 2);
+        assertThat(rest.size(), equalTo(1));
+        assertThat(rest.get(0).getText(), equalTo("comment 1"));
+
+        assertThrows(ModelNotFoundException.class, () -> itemService.getComments(20L, null, 2));
+    }
+
+    @Test
+    void searchReflectsAvailabilityUpdates() {
+        userService.createUser(userDto);
+        itemService.createItem(1L, itemDto);
+
+        itemService.updateItem(1L, ItemDto.builder().available(false).build(), 1L);
+        assertThat(itemService.search("hammer", 0, 3).size(), equalTo(0));
+
+        itemService.updateItem(1L, ItemDto.builder().available(true).name("Mallet").build(), 1L);
+        assertThat(itemService.search("hammer", 0, 3).size(), equalTo(1));
+        assertThat(itemService.search("mallet", 0, 3).get(0).getName(), equalTo("Mallet"));
+    }
+
+    @Test
+    void getAvailabilityMergesBookingsIntoGaps() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(base.plusHours(1)).end(base.plusHours(3)).build());
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(base.plusHours(5)).end(base.plusHours(6)).build());
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(base.plusHours(2)).end(base.plusHours(4)).build());
+        bookingService.updateBooking(1L, 1L, true);
+        bookingService.updateBooking(2L, 1L, true);
+
+        List<FreeSlotDto> slots = itemService.getAvailability(1L, base, base.plusHours(8), false);
+        assertThat(slots.size(), equalTo(3));
+        assertThat(slots.get(0).getEnd(), equalTo(base.plusHours(1)));
+        assertThat(slots.get(1).getStart(), equalTo(base.plusHours(3)));
+        assertThat(slots.get(1).getEnd(), equalTo(base.plusHours(5)));
+        assertThat(slots.get(2).getStart(), equalTo(base.plusHours(6)));
+
+        List<FreeSlotDto> withWaiting = itemService.getAvailability(1L, base.plusHours(2), base.plusHours(8), true);
+        assertThat(withWaiting.size(), equalTo(2));
+        assertThat(withWaiting.get(0).getStart(), equalTo(base.plusHours(4)));
+    }
+
+    @Test
+    void getAvailabilityKeepsBookingsStartedLongBeforeWindow() {
+        userService.createUser(userDto);
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@yandex.ru").build());
+        itemService.createItem(1L, itemDto);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        bookingService.createBooking(2L, BookingRequestDto.builder()
+                .itemId(1L).start(base).end(base.plusYears(2)).build());
+        bookingService.updateBooking(1L, 1L, true);
+
+        List<FreeSlotDto> slots = itemService.getAvailability(1L, base.plusDays(500), base.plusDays(501), false);
+        assertThat(slots.size(), equalTo(0));
+    }
+
+    @Test
+    void failGettingAvailabilityWithEmptyWindow() {
+        userService.createUser(userDto);
+        itemService.createItem(1L, itemDto);
+        LocalDateTime now = LocalDateTime.now();
+
+        InvalidBookingException e = assertThrows(InvalidBookingException.class,
+                () -> itemService.getAvailability(1L, now, now, false));
+        assertThat(e.getMessage(), equalTo("Availability window must end after it starts."));
+    }
+
+    @Test
+    void failGettingAvailabilityWithTooLongWindow() {
+        userService.createUser(userDto);
+        itemService.createItem(1L, itemDto);
+        LocalDateTime now = LocalDateTime.now();
+
+        InvalidBookingException e = assertThrows(InvalidBookingException.class,
+                () -> itemService.getAvailability(1L, now, now.plusYears(2), false));
+        assertThat(e.getMessage(), equalTo("Availability window cannot be longer than 366 days."));
+    }
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.comment.dto.CommentView;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -14,14 +15,11 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.hasItem;
 
 @DataJpaTest
 public class CommentRepositoryTest {
@@ -82,45 +80,30 @@ public class CommentRepositoryTest {
 
 
     @Test
-    void findCommentsByItemId() {
-        userRepository.save(user1);
-        userRepository.save(user);
-        itemRequest.setRequester(user);
-        itemRequestRepository.save(itemRequest);
-        item.setRequest(itemRequest);
-        itemRepository.save(item);
-
-        Comment comment1 = Comment.builder()
-                .text("comment 1")
-                .item(item)
-                .author(user1)
-                .created(LocalDateTime.now())
-                .build();
-        Comment comment2 = Comment.builder()
-                .text("comment 2")
-                .item(item)
-                .author(user1)
-                .created(LocalDateTime.now())
-                .build();
-
-        commentRepository.saveAll(Arrays.asList(comment1, comment2));
-
-        Set<Long> itemIds = new HashSet<>();
-        itemIds.add(item.getId());
-
-        Set<Comment> comments = commentRepository.findCommentsByItemId(itemIds);
-
-        assertThat(comments.size(), equalTo(2));
-        assertThat(comments.stream().map(Comment::getItem).collect(Collectors.toSet()), hasItem(item));
-    }
-
-    @Test
-    void findAllByItemId() {
+    void findNewestViewsByItemIdInKeepsNewestCommentsOfEachItem() {
         userRepository.save(user);
         userRepository.save(user1);
         itemRepository.save(item);
-        commentRepository.save(comment);
-
-        assertThat(commentRepository.findAllByItemId(item.getId()).size(), equalTo(1));
+        Item other = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("drilling the wall")
+                .available(true)
+                .owner(user)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(Comment.builder().text("hammer " + i).item(item).author(user1)
+                    .created(LocalDateTime.now()).build());
+            commentRepository.save(Comment.builder().text("drill " + i).item(other).author(user1)
+                    .created(LocalDateTime.now()).build());
+        }
+
+        List<CommentView> comments = commentRepository.findNewestViewsByItemIdIn(List.of(item.getId(), other.getId()),
+                2);
+
+        assertThat(comments.stream().map(CommentView::getText).collect(Collectors.toList()),
+                equalTo(List.of("drill 2", "hammer 2", "drill 1", "hammer 1")));
+        assertThat(comments.get(0).getItemId(), equalTo(other.getId()));
+        assertThat(comments.get(0).getAuthorName(), equalTo("Ivan"));
+        assertThat(comments.get(0).getCreated() != null, equalTo(true));
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebM
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.controller.ItemRequestController;
@@ -26,6 +27,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -96,7 +98,7 @@ public class ItemRequestControllerTest {
 
     @Test
     void createItemRequestWithoutDescriptionExpectedStatus400() throws Exception {
-        ItemRequestDto badRequest = new ItemRequestDto(1L, null, timestamp1, null);
+        ItemRequestDto badRequest = new ItemRequestDto(1L, null, timestamp1, null, null, null);
 
         mvc.perform(post("/requests")
                         .content(mapper.writeValueAsString(badRequest))
@@ -141,6 +143,18 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].description", is(itemRequestDto.getDescription())));
     }
 
+    @Test
+    void getAllItemRequestsAfterCursorExpectedStatus200() throws Exception {
+        when(itemRequestService.getAllItemRequestsAfter(1L, 5L, 2))
+                .thenReturn(List.of(itemRequestDto));
+
+        mvc.perform(get("/requests/all?after=5&size=2")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].description", is(itemRequestDto.getDescription())));
+    }
+
     @Test
     void getAllItemRequestsWithWrongFromExpectedStatus500() throws Exception {
         mvc.perform(get("/requests/all?from=-2&size=2")
@@ -176,4 +190,14 @@ public class ItemRequestControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error", is("Not found exception")));
     }
+
+    @Test
+    void subscribeStartsEventStream() throws Exception {
+        when(itemRequestService.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
 }
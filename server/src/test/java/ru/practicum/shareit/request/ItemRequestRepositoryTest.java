@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -13,6 +16,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -26,6 +30,9 @@ public class ItemRequestRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemRepository itemRepository;
+
     private User user;
     private User user1;
     private ItemRequest itemRequest;
@@ -74,4 +81,30 @@ public class ItemRequestRepositoryTest {
         assertThat((long) itemRequestRepository.findAllByRequesterIdNotOrderByCreatedAsc(user1.getId(),
                 Pageable.ofSize(10)).size(), equalTo(1L));
     }
+
+    @Test
+    void findOpenViewsAfterSkipsAnsweredRequestsInIdOrder() {
+        userRepository.save(user);
+        itemRequestRepository.save(itemRequest);
+        ItemRequest answered = itemRequestRepository.save(ItemRequest.builder()
+                .description("answered description")
+                .requester(user)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest last = itemRequestRepository.save(ItemRequest.builder()
+                .description("last description")
+                .requester(user)
+                .created(LocalDateTime.now())
+                .build());
+        itemRepository.save(Item.builder().name("Drill").description("drill").available(true)
+                .owner(user).request(answered).build());
+
+        List<ItemRequestView> open = itemRequestRepository.findOpenViewsAfter(0L, Pageable.ofSize(10));
+
+        assertThat(open.stream().map(ItemRequestView::getId).collect(Collectors.toList()),
+                equalTo(List.of(itemRequest.getId(), last.getId())));
+        assertThat(open.get(0).getRequesterId(), equalTo(user.getId()));
+        assertThat(itemRequestRepository.findOpenViewsAfter(itemRequest.getId(), Pageable.ofSize(10)).size(),
+                equalTo(1));
+    }
 }
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.feed.ItemRequestRing;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestFeed;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemRequestRingTest {
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private ItemRequestRing ring;
+
+    @BeforeEach
+    void init() {
+        ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+        ItemRequestFeed itemRequestFeed = mock(ItemRequestFeed.class);
+        when(itemRequestRepository.findFirstViews(any())).thenReturn(List.of());
+        when(itemRequestFeed.attachItems(any())).thenReturn(new ArrayList<>());
+        ring = new ItemRequestRing(itemRequestRepository, itemRequestFeed, 3, 1, new SimpleMeterRegistry());
+        ring.seed();
+    }
+
+    @Test
+    void pagesSkipViewerRequestsAndKeepFeedOrder() {
+        create(2L, 1L, base.plusMinutes(2));
+        create(1L, 2L, base.plusMinutes(1));
+        create(3L, 2L, base.plusMinutes(3));
+
+        assertThat(ids(ring.page(1L, 0, 10).orElseThrow()), equalTo(List.of(1L, 3L)));
+        assertThat(ids(ring.page(2L, 0, 10).orElseThrow()), equalTo(List.of(2L)));
+        assertThat(ids(ring.pageAfter(1L, 1L, 10).orElseThrow()), equalTo(List.of(3L)));
+        assertThat(ids(ring.page(3L, 1, 1).orElseThrow()), equalTo(List.of(2L)));
+    }
+
+    @Test
+    void headOfTheFeedServesFirstPagesWhenRequestsExceedCapacity() {
+        for (long id = 1; id <= 5; id++) {
+            create(id, 2L, base.plusMinutes(id));
+        }
+
+        assertThat(ids(ring.page(1L, 0, 2).orElseThrow()), equalTo(List.of(1L, 2L)));
+        assertThat(ids(ring.pageAfter(1L, 1L, 2).orElseThrow()), equalTo(List.of(2L, 3L)));
+        assertThat(ring.page(1L, 2, 2).isPresent(), equalTo(false));
+        assertThat(ring.pageAfter(1L, 2L, 2).isPresent(), equalTo(false));
+        assertThat(ring.pageAfter(1L, 4L, 2).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void earlierRequestEvictsTheLastEntryOfAFullRing() {
+        for (long id = 1; id <= 3; id++) {
+            create(id, 2L, base.plusMinutes(id));
+        }
+        create(4L, 2L, base);
+
+        assertThat(ids(ring.page(1L, 0, 3).orElseThrow()), equalTo(List.of(4L, 1L, 2L)));
+        assertThat(ring.page(1L, 0, 4).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void savedItemsAreAttachedUpToTheLimitAndCounted() {
+        create(1L, 2L, base);
+        ring.onItemSaved(new ItemSavedEvent(null, item(10L, "Drill")));
+        ring.onItemSaved(new ItemSavedEvent(null, item(11L, "Saw")));
+        ring.onItemSaved(new ItemSavedEvent(item(10L, "Drill"), item(10L, "Hammer drill")));
+
+        ItemRequestDto request = ring.page(1L, 0, 10).orElseThrow().get(0);
+        assertThat(request.getItemCount(), equalTo(2L));
+        assertThat(request.getItems().size(), equalTo(1));
+        assertThat(request.getItems().get(0).getName(), equalTo("Hammer drill"));
+    }
+
+    @Test
+    void itemSavedWhileSeedingIsReadAgainOnceTheSnapshotIsInPlace() {
+        ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+        ItemRequestFeed itemRequestFeed = mock(ItemRequestFeed.class);
+        List<ItemRequestView> first = List.of(view(1L, 2L, base));
+        when(itemRequestRepository.findFirstViews(any())).thenReturn(first);
+        ItemRequestRing seeded = new ItemRequestRing(itemRequestRepository, itemRequestFeed, 3, 1,
+                new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+        when(itemRequestFeed.attachItems(any())).thenAnswer(invocation -> {
+            List<ItemRequestDto> requests = invocation.getArgument(0);
+            requests.forEach(request -> {
+                request.setItems(new ArrayList<>());
+                request.setItemCount(0L);
+            });
+            if (calls.getAndIncrement() == 0) {
+                seeded.onItemSaved(new ItemSavedEvent(null, item(10L, "Drill")));
+            } else {
+                requests.forEach(request -> {
+                    request.getItems().add(ItemMapper.toItemDto(item(10L, "Drill")));
+                    request.setItemCount(1L);
+                });
+            }
+            return requests;
+        });
+
+        seeded.seed();
+
+        ItemRequestDto request = seeded.page(3L, 0, 10).orElseThrow().get(0);
+        assertThat(calls.get(), equalTo(2));
+        assertThat(request.getItemCount(), equalTo(1L));
+        assertThat(request.getItems().get(0).getName(), equalTo("Drill"));
+        assertThat(request.getDescription(), equalTo("request 1"));
+    }
+
+    private void create(Long id, Long requesterId, LocalDateTime created) {
+        ring.onItemRequestCreated(new ItemRequestCreatedEvent(requesterId, ItemRequestDto.builder()
+                .id(id)
+                .description("request " + id)
+                .created(created)
+                .build()));
+    }
+
+    private static ItemDtoShort item(Long id, String name) {
+        return ItemDtoShort.builder().id(id).name(name).description("tool").available(true).requestId(1L).build();
+    }
+
+    private static ItemRequestView view(Long id, Long requesterId, LocalDateTime created) {
+        return new ItemRequestView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRequesterId() {
+                return requesterId;
+            }
+
+            @Override
+            public String getDescription() {
+                return "request " + id;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return created;
+            }
+        };
+    }
+
+    private static List<Long> ids(List<ItemRequestDto> requests) {
+        return requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+    }
+}
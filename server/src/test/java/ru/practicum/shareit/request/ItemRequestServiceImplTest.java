@@ -8,6 +8,8 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.error.ModelNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -31,6 +33,7 @@ public class ItemRequestServiceImplTest {
     private final EntityManager em;
     private final ItemRequestService itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
     private ItemRequestDto itemRequestDto;
 
     @BeforeEach
@@ -81,6 +84,21 @@ public class ItemRequestServiceImplTest {
         assertThat(request.getId(), equalTo(1L));
     }
 
+    @Test
+    void getItemRequestByIdCapsItemsAndCountsAll() {
+        itemRequestService.createItemRequest(itemRequestDto, 1L);
+        for (int i = 1; i <= 12; i++) {
+            itemService.createItem(1L, ItemDto.builder()
+                    .name("item " + i).description("description").available(true).requestId(1L).build());
+        }
+
+        ItemRequestDto request = itemRequestService.getItemRequestById(1L, 1L);
+
+        assertThat(request.getItems().size(), equalTo(10));
+        assertThat(request.getItems().get(0).getName(), equalTo("item 1"));
+        assertThat(request.getItemCount(), equalTo(12L));
+    }
+
     @Test
     void failGettingItemRequestWithWrongUserId() {
         itemRequestService.createItemRequest(itemRequestDto, 1L);
@@ -137,4 +155,44 @@ public class ItemRequestServiceImplTest {
         assertThat(requests.size(), equalTo(1));
         assertThat(requests.get(0).getDescription(), equalTo("request"));
     }
+
+    @Test
+    void getAllItemRequestsAfterCursorWithCappedItems() {
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@email.com").build());
+        for (int i = 1; i <= 3; i++) {
+            itemRequestService.createItemRequest(ItemRequestDto.builder().description("request " + i).build(), 2L);
+        }
+        for (int i = 1; i <= 12; i++) {
+            itemService.createItem(1L, ItemDto.builder()
+                    .name("item " + i).description("description").available(true).requestId(1L).build());
+        }
+
+        List<ItemRequestDto> first = itemRequestService.getAllItemRequests(1L, 0, 2);
+        assertThat(first.size(), equalTo(2));
+        assertThat(first.get(0).getItems().size(), equalTo(10));
+        assertThat(first.get(0).getItemCount(), equalTo(12L));
+        assertThat(first.get(1).getItemCount(), equalTo(0L));
+
+        List<ItemRequestDto> rest = itemRequestService.getAllItemRequestsAfter(1L, first.get(1).getId(), 2);
+        assertThat(rest.size(), equalTo(1));
+        assertThat(rest.get(0).getDescription(), equalTo("request 3"));
+
+        assertThrows(ModelNotFoundException.class, () -> itemRequestService.getAllItemRequestsAfter(1L, 20L, 2));
+    }
+
+    @Test
+    void getItemRequestByIdSuggestsMatchingItems() {
+        userService.createUser(UserDto.builder().name("Ivan").email("ivan@email.com").build());
+        itemRequestService.createItemRequest(ItemRequestDto.builder().description("Need a cordless drill").build(), 2L);
+        itemService.createItem(1L, ItemDto.builder().name("Drill").description("cordless").available(true).build());
+        itemService.createItem(1L, ItemDto.builder().name("Ladder").description("tall").available(true).build());
+
+        ItemRequestDto request = itemRequestService.getItemRequestById(1L, 2L);
+        assertThat(request.getSuggestedItems().size(), equalTo(1));
+        assertThat(request.getSuggestedItems().get(0).getName(), equalTo("Drill"));
+
+        itemService.createItem(1L, ItemDto.builder().name("Drill").description("spare").available(true)
+                .requestId(1L).build());
+        assertThat(itemRequestService.getItemRequestById(1L, 2L).getSuggestedItems().size(), equalTo(0));
+    }
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
+import ru.practicum.shareit.request.match.RequestKeywordIndex;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestKeywordIndexTest {
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final RequestKeywordIndex index = new RequestKeywordIndex(itemRequestRepository, itemRepository, 2,
+            new SimpleMeterRegistry());
+
+    @Test
+    void matchesOpenRequestsOfOtherUsersByKeyword() {
+        index.add(1L, 10L, "Need a cordless drill for the weekend");
+        index.add(2L, 20L, "Looking for a ladder");
+        index.add(3L, 30L, "Drill, please!");
+
+        index.match(100L, 30L, "Drill", "Cordless, with two batteries");
+        index.match(101L, 40L, "Step ladder", null);
+
+        assertThat(index.suggestions(1L), equalTo(List.of(100L)));
+        assertThat(index.suggestions(2L), equalTo(List.of(101L)));
+        assertThat(index.suggestions(3L), equalTo(List.of()));
+    }
+
+    @Test
+    void keepsLatestSuggestionsAndClosesAnsweredRequests() {
+        index.load();
+        index.add(1L, 10L, "drill");
+        for (long itemId = 100; itemId < 103; itemId++) {
+            index.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                    .id(itemId).name("Drill").available(true).ownerId(20L).build()));
+        }
+        assertThat(index.suggestions(1L), equalTo(List.of(102L, 101L)));
+
+        index.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                .id(103L).name("Drill").available(true).ownerId(20L).requestId(1L).build()));
+        index.match(104L, 20L, "Drill", null);
+        assertThat(index.suggestions(1L), equalTo(List.of()));
+    }
+
+    @Test
+    void loadMatchesItemsInIdOrderSoSuggestionsStayLatestFirst() {
+        when(itemRequestRepository.findOpenViewsAfter(eq(0L), any())).thenReturn(List.of(request(1L, 10L, "drill")));
+        when(itemRequestRepository.findOpenViewsAfter(eq(1L), any())).thenReturn(List.of());
+        when(itemRepository.findUnrequestedTextViewsAfter(eq(0L), any()))
+                .thenReturn(List.of(item(100L, "Drill"), item(101L, "Drill")));
+        when(itemRepository.findUnrequestedTextViewsAfter(eq(101L), any()))
+                .thenReturn(List.of(item(102L, "Drill")));
+        when(itemRepository.findUnrequestedTextViewsAfter(eq(102L), any())).thenReturn(List.of());
+
+        index.load();
+
+        assertThat(index.suggestions(1L), equalTo(List.of(102L, 101L)));
+    }
+
+    @Test
+    void requestAnsweredWhileLoadingStaysClosed() {
+        when(itemRequestRepository.findOpenViewsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            index.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                    .id(100L).name("Drill").available(true).ownerId(20L).requestId(1L).build()));
+            index.onItemSaved(new ItemSavedEvent(null, ItemDtoShort.builder()
+                    .id(101L).name("Ladder").available(true).ownerId(20L).build()));
+            return List.of(request(1L, 10L, "drill"), request(2L, 10L, "ladder"));
+        });
+        when(itemRequestRepository.findOpenViewsAfter(eq(2L), any())).thenReturn(List.of());
+
+        index.load();
+        index.match(102L, 20L, "Drill", null);
+
+        assertThat(index.suggestions(1L), equalTo(List.of()));
+        assertThat(index.suggestions(2L), equalTo(List.of(101L)));
+    }
+
+    private static ItemRequestView request(Long id, Long requesterId, String description) {
+        return new ItemRequestView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRequesterId() {
+                return requesterId;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return LocalDateTime.now();
+            }
+        };
+    }
+
+    private static ItemTextView item(Long id, String name) {
+        return new ItemTextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return 20L;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.request.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ItemRequestStreamTest {
+    private final ItemRequestStream stream = new ItemRequestStream(2, Duration.ofMinutes(1), Duration.ofHours(1), 2,
+            Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutdown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void requestsGoToOtherUsersAndItemsToTheRequester() throws InterruptedException {
+        RecordingEmitter requester = new RecordingEmitter(null);
+        RecordingEmitter other = new RecordingEmitter(null);
+        stream.subscribe(1L, requester);
+        stream.subscribe(2L, other);
+
+        stream.onItemRequestCreated(new ItemRequestCreatedEvent(1L, ItemRequestDto.builder().id(1L).build()));
+        stream.onItemRequestAnswered(new ItemRequestAnsweredEvent(1L, ItemDto.builder().id(5L).build()));
+
+        assertThat(other.next(), containsString("event:request"));
+        assertThat(requester.next(), containsString("event:item"));
+        assertThat(other.sent.poll(100, TimeUnit.MILLISECONDS), nullValue());
+        assertThat(requester.sent.poll(100, TimeUnit.MILLISECONDS), nullValue());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutHoldingBackOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        stream.subscribe(1L, slow);
+        stream.subscribe(2L, fast);
+
+        for (long id = 1; id <= 5; id++) {
+            stream.onItemRequestCreated(new ItemRequestCreatedEvent(3L, ItemRequestDto.builder().id(id).build()));
+            assertThat(fast.next(), containsString("id:request-" + id));
+        }
+
+        assertThat(stream.subscriberCount(), equalTo(1));
+        release.countDown();
+        assertThat(slow.completed.await(1, TimeUnit.SECONDS), equalTo(true));
+    }
+
+    @Test
+    void blockedSendIsInterruptedAfterTheWriteTimeoutAndFreesThePool() throws InterruptedException {
+        ItemRequestStream single = new ItemRequestStream(2, Duration.ofMinutes(1), Duration.ofHours(1), 1,
+                Duration.ofMillis(100), new SimpleMeterRegistry());
+        try {
+            BlockingEmitter blocked = new BlockingEmitter();
+            RecordingEmitter other = new RecordingEmitter(null);
+            single.subscribe(1L, blocked);
+            single.onItemRequestCreated(new ItemRequestCreatedEvent(3L, ItemRequestDto.builder().id(1L).build()));
+            assertThat(blocked.sending.await(1, TimeUnit.SECONDS), equalTo(true));
+            single.subscribe(2L, other);
+
+            single.onItemRequestCreated(new ItemRequestCreatedEvent(3L, ItemRequestDto.builder().id(2L).build()));
+
+            assertThat(other.next(), containsString("id:request-2"));
+            assertThat(blocked.interrupted.await(1, TimeUnit.SECONDS), equalTo(true));
+            assertThat(single.subscriberCount(), equalTo(1));
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    /**
+     * An emitter whose client never reads: every send blocks until the sending thread is interrupted.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException("Write aborted", e);
+            }
+        }
+
+        @Override
+        public void complete() {
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            List.copyOf(builder.build()).forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private String next() throws InterruptedException {
+            String event = sent.poll(1, TimeUnit.SECONDS);
+            assertThat(event, notNullValue());
+            return event;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.error.EmailAlreadyExistException;
 import ru.practicum.shareit.error.ModelNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -57,6 +58,30 @@ public class UserServiceImplTest {
         assertThat("vanya@yandex.ru", equalTo(userDto.getEmail()));
     }
 
+    @Test
+    void updateUserRejectsEmailOfAnotherUserIgnoringCase() {
+        service.createUser(new UserDto(1L, "Ivan", "ivan@yandex.ru"));
+        service.createUser(new UserDto(2L, "Petr", "petr@yandex.ru"));
+
+        EmailAlreadyExistException e = assertThrows(EmailAlreadyExistException.class,
+                () -> service.updateUser(2L, new UserDto(2L, null, "Ivan@Yandex.ru")));
+        assertThat(e.getMessage(), equalTo("Email is already registered!"));
+
+        service.updateUser(1L, new UserDto(1L, null, "Ivan@Yandex.ru"));
+        service.updateUser(2L, new UserDto(2L, null, "petr@mail.ru"));
+        assertThat(service.getUserById(2L).getEmail(), equalTo("petr@mail.ru"));
+    }
+
+    @Test
+    void createUserRejectsRegisteredEmailIgnoringCase() {
+        service.createUser(new UserDto(1L, "Ivan", "ivan@yandex.ru"));
+
+        EmailAlreadyExistException e = assertThrows(EmailAlreadyExistException.class,
+                () -> service.createUser(new UserDto(2L, "Ivan", "IVAN@yandex.ru")));
+        assertThat(e.getMessage(), equalTo("Email is already registered!"));
+        assertThat(service.findAllUsers().size(), equalTo(1));
+    }
+
     @Test
     void failUpdateUser() {
         UserDto userDto = new UserDto(1L, "Ivan", "ivan@yandex.ru");
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserEmailView;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RegisteredEmailFilterTest {
+
+    @Test
+    void filterSizedForFiveMillionUsersKeepsItsFalsePositiveRate() {
+        int users = 5_000_000;
+        BloomFilter filter = new BloomFilter(users, 0.01);
+        for (int i = 0; i < users; i++) {
+            filter.put(RegisteredEmailFilter.key("user" + i + "@shareit.ru"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain(RegisteredEmailFilter.key("user" + i * 50 + "@shareit.ru")), equalTo(true));
+            if (filter.mightContain(RegisteredEmailFilter.key("free" + i + "@shareit.ru"))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives, lessThan(1_500));
+    }
+
+    @Test
+    void filterSeedsInBatchesAndIgnoresCase() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findEmailsAfter(eq(0L), any())).thenReturn(List.of(view(1L, "Ivan@Yandex.ru")));
+        when(userRepository.findEmailsAfter(eq(1L), any())).thenReturn(List.of());
+        RegisteredEmailFilter filter = new RegisteredEmailFilter(userRepository, 1000, 0.01,
+                new SimpleMeterRegistry());
+
+        assertThat(filter.mightBeRegistered("petr@yandex.ru"), equalTo(true));
+        filter.seed();
+
+        assertThat(filter.mightBeRegistered("ivan@yandex.ru"), equalTo(true));
+        assertThat(filter.mightBeRegistered("petr@yandex.ru"), equalTo(false));
+        filter.add("Petr@yandex.ru");
+        assertThat(filter.mightBeRegistered("petr@yandex.ru"), equalTo(true));
+    }
+
+    private static UserEmailView view(Long id, String email) {
+        return new UserEmailView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}